@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.benchmark;
+
+import static org.mule.extension.sftp.SftpServer.PASSWORD;
+import static org.mule.extension.sftp.SftpServer.USERNAME;
+import static org.mule.extension.sftp.random.alg.PRNGAlgorithm.SHA1PRNG;
+import org.mule.extension.sftp.LatencyProxyServer;
+import org.mule.extension.sftp.SftpServer;
+import org.mule.extension.sftp.internal.SftpConnector;
+import org.mule.extension.sftp.internal.connection.SftpClient;
+import org.mule.extension.sftp.internal.connection.SftpClientFactory;
+import org.mule.extension.sftp.internal.connection.SftpFileSystem;
+import org.mule.extension.sftp.internal.connection.SftpPathLockManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Base class for benchmarks which start an embedded {@link SftpServer} serving a temporary directory and connect a
+ * {@link SftpFileSystem} to it.
+ * <p>
+ * The server exposes the local file system, so fixtures are created directly on disk under {@link #root} instead of
+ * through the connector.
+ * <p>
+ * Connections go through a {@link LatencyProxyServer} when {@link #roundTripMillis}, {@link #jitterMillis} or
+ * {@link #bandwidth} are set, which allows to emulate a wide area network. For example:
+ * {@code java -jar benchmarks.jar -p roundTripMillis=20,80,200}
+ *
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractSftpBenchmark {
+
+  protected final SftpConnector config = new SftpConnector();
+
+  /**
+   * The round trip time to emulate between the client and the server, in milliseconds
+   */
+  @Param({"0"})
+  protected long roundTripMillis;
+
+  /**
+   * The maximum random delay added to each packet, in milliseconds
+   */
+  @Param({"0"})
+  protected long jitterMillis;
+
+  /**
+   * The maximum bandwidth in each direction, in bytes per second, or {@code 0} for no limit
+   */
+  @Param({"0"})
+  protected long bandwidth;
+
+  protected SftpServer server;
+  protected LatencyProxyServer proxy;
+  protected int port;
+  protected Path root;
+  protected SftpClient client;
+  protected SftpFileSystem fileSystem;
+
+  @Setup(Level.Trial)
+  public void startServer() throws Exception {
+    int serverPort = findFreePort();
+    server = new SftpServer(serverPort);
+    server.setPasswordAuthenticator();
+    server.start();
+
+    port = serverPort;
+    if (roundTripMillis > 0 || jitterMillis > 0 || bandwidth > 0) {
+      port = findFreePort();
+      proxy = new LatencyProxyServer(port, serverPort);
+      proxy.setRoundTripTime(roundTripMillis);
+      proxy.setJitter(jitterMillis);
+      proxy.setBandwidth(bandwidth);
+      proxy.start();
+    }
+
+    root = Files.createTempDirectory("sftp-benchmark");
+    client = connect();
+    fileSystem = new SftpFileSystem(client, root.toString(), null, new SftpPathLockManager());
+    fileSystem.changeToBaseDir();
+  }
+
+  @TearDown(Level.Trial)
+  public void stopServer() throws Exception {
+    try {
+      if (client != null) {
+        client.disconnect();
+      }
+      if (proxy != null) {
+        proxy.stop();
+      }
+      if (server != null) {
+        server.stop();
+      }
+    } finally {
+      if (root != null) {
+        FileUtils.deleteDirectory(root.toFile());
+      }
+    }
+  }
+
+  /**
+   * Establishes a new connection to the embedded server
+   *
+   * @return a logged in {@link SftpClient}
+   */
+  protected SftpClient connect() throws Exception {
+    SftpClient client = new SftpClientFactory().createInstance("localhost", port, SHA1PRNG);
+    client.setPassword(PASSWORD);
+    client.login(USERNAME);
+    return client;
+  }
+
+  /**
+   * Creates a file of the given {@code size} under {@link #root}. The file is sparse, so creating large files is cheap.
+   *
+   * @param relativePath the path of the file, relative to {@link #root}
+   * @param size         the size of the file in bytes
+   * @return the absolute path of the file
+   */
+  protected String createFile(String relativePath, long size) throws IOException {
+    File file = root.resolve(relativePath).toFile();
+    file.getParentFile().mkdirs();
+    try (RandomAccessFile content = new RandomAccessFile(file, "rw")) {
+      content.setLength(size);
+    }
+    return file.getAbsolutePath();
+  }
+
+  /**
+   * Creates a directory tree under {@link #root} with {@code depth} levels, each of them holding {@code filesPerDirectory}
+   * files and {@code directoriesPerLevel} subdirectories
+   *
+   * @return the absolute path of the tree's root
+   */
+  protected String createTree(String relativePath, int depth, int directoriesPerLevel, int filesPerDirectory)
+      throws IOException {
+    Path directory = root.resolve(relativePath);
+    Files.createDirectories(directory);
+    for (int i = 0; i < filesPerDirectory; i++) {
+      createFile(root.relativize(directory.resolve("file-" + i + ".txt")).toString(), 1024);
+    }
+
+    if (depth > 1) {
+      for (int i = 0; i < directoriesPerLevel; i++) {
+        createTree(root.relativize(directory.resolve("dir-" + i)).toString(), depth - 1, directoriesPerLevel,
+                   filesPerDirectory);
+      }
+    }
+
+    return directory.toString();
+  }
+
+  private static int findFreePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.benchmark;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import org.mule.extension.sftp.internal.connection.SftpClient;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures establishing and authenticating a new connection, and forking a channel from an existing one
+ *
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConnectionBenchmark extends AbstractSftpBenchmark {
+
+  @Benchmark
+  public boolean handshake() throws Exception {
+    SftpClient connection = connect();
+    try {
+      return connection.isConnected();
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  @Benchmark
+  public boolean fork() throws Exception {
+    SftpClient channel = client.fork();
+    try {
+      return channel.isConnected();
+    } finally {
+      channel.disconnect();
+    }
+  }
+}
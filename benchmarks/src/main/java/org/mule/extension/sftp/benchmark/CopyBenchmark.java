@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.benchmark;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures copying a single file and a directory tree, with and without parallel channels
+ * <p>
+ * The benchmark's config is not managed by a Mule runtime, so it has no connection manager to obtain the writer
+ * connection from. The copies are written through an additional channel of the benchmark's own connection instead.
+ *
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CopyBenchmark extends AbstractSftpBenchmark {
+
+  @Param({"1", "4"})
+  private int parallelChannels;
+
+  private String sourceFile;
+  private String sourceTree;
+  private String target;
+
+  @Setup(Level.Trial)
+  public void createSources() throws Exception {
+    client.setParallelChannels(parallelChannels);
+    client.setCopyOverSameSession(true);
+    sourceFile = createFile("copy/source.bin", 16 * 1024 * 1024);
+    sourceTree = createTree("copy/tree", 3, 4, 10);
+    target = root.resolve("copy/target").toString();
+  }
+
+  @Benchmark
+  public void copyFile() {
+    fileSystem.getCopyCommand().copy(config, sourceFile, target, true, true, null);
+  }
+
+  @Benchmark
+  public void copyTree() {
+    fileSystem.getCopyCommand().copy(config, sourceTree, target, true, true, null);
+  }
+}
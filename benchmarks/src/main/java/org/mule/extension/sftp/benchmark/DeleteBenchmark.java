@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.benchmark;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures recursively deleting a directory tree, with and without parallel channels. The tree is created again before
+ * each invocation, which is why this benchmark runs in single shot mode.
+ *
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DeleteBenchmark extends AbstractSftpBenchmark {
+
+  @Param({"1", "4"})
+  private int parallelChannels;
+
+  private String tree;
+
+  @Setup(Level.Trial)
+  public void configureChannels() {
+    client.setParallelChannels(parallelChannels);
+  }
+
+  @Setup(Level.Invocation)
+  public void createTree() throws Exception {
+    tree = createTree("delete", 3, 4, 25);
+  }
+
+  @Benchmark
+  public void deleteTree() {
+    fileSystem.getDeleteCommand().delete(tree);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.benchmark;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import org.mule.extension.file.common.api.FileAttributes;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.io.InputStream;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures listing directories of different sizes, both through the client and through the list command
+ *
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ListBenchmark extends AbstractSftpBenchmark {
+
+  @Param({"10", "10000"})
+  private int fileCount;
+
+  private String directory;
+
+  @Setup(Level.Trial)
+  public void createDirectory() throws Exception {
+    directory = createTree("list", 1, 0, fileCount);
+  }
+
+  @Benchmark
+  public int listThroughClient() {
+    return client.list(directory).size();
+  }
+
+  @Benchmark
+  public int listThroughCommand() {
+    List<Result<InputStream, FileAttributes>> files =
+        fileSystem.getListCommand().list(config, directory, false, attributes -> true);
+    return files.size();
+  }
+}
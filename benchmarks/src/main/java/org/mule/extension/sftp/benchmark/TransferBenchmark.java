@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.benchmark;
+
+import static java.lang.Math.min;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.extension.file.common.api.FileWriteMode.OVERWRITE;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading and writing files from 1 KB to 1 GB
+ *
+ * @since 1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TransferBenchmark extends AbstractSftpBenchmark {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  @Param({"1024", "1048576", "104857600", "1073741824"})
+  private long size;
+
+  private String sourceFile;
+  private String targetFile;
+
+  @Setup(Level.Trial)
+  public void createFiles() throws Exception {
+    sourceFile = createFile("transfer/source.bin", size);
+    targetFile = root.resolve("transfer/target.bin").toString();
+  }
+
+  @Benchmark
+  public long read() throws IOException {
+    long total = 0;
+    byte[] buffer = new byte[BUFFER_SIZE];
+    try (InputStream content = client.getFileContent(sourceFile)) {
+      for (int read = content.read(buffer); read != -1; read = content.read(buffer)) {
+        total += read;
+      }
+    }
+    return total;
+  }
+
+  @Benchmark
+  public void write() {
+    fileSystem.getWriteCommand().write(targetFile, new ZeroInputStream(size), OVERWRITE, false, true, null);
+  }
+
+  /**
+   * Provides a fixed amount of zeroes without holding them in memory
+   */
+  private static class ZeroInputStream extends InputStream {
+
+    private long remaining;
+
+    private ZeroInputStream(long size) {
+      remaining = size;
+    }
+
+    @Override
+    public int read() {
+      if (remaining == 0) {
+        return -1;
+      }
+      remaining--;
+      return 0;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+      if (remaining == 0) {
+        return -1;
+      }
+
+      int count = (int) min(length, remaining);
+      for (int i = offset; i < offset + count; i++) {
+        buffer[i] = 0;
+      }
+      remaining -= count;
+      return count;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.api;
+
+import java.io.Serializable;
+
+/**
+ * The outcome of applying a bulk operation to one of its paths
+ *
+ * @since 1.0
+ */
+public class SftpBulkOperationResult implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String path;
+  private final boolean successful;
+  private final SftpFileAttributes attributes;
+  private final String errorMessage;
+
+  /**
+   * Creates a result for a path which was successfully processed
+   *
+   * @param path       the path as it was given to the operation
+   * @param attributes the {@link SftpFileAttributes} of the file, if the operation obtains them. May be {@code null}
+   * @return a new {@link SftpBulkOperationResult}
+   */
+  public static SftpBulkOperationResult success(String path, SftpFileAttributes attributes) {
+    return new SftpBulkOperationResult(path, true, attributes, null);
+  }
+
+  /**
+   * Creates a result for a path which could not be processed
+   *
+   * @param path         the path as it was given to the operation
+   * @param errorMessage a description of the failure
+   * @return a new {@link SftpBulkOperationResult}
+   */
+  public static SftpBulkOperationResult failure(String path, String errorMessage) {
+    return new SftpBulkOperationResult(path, false, null, errorMessage);
+  }
+
+  private SftpBulkOperationResult(String path, boolean successful, SftpFileAttributes attributes, String errorMessage) {
+    this.path = path;
+    this.successful = successful;
+    this.attributes = attributes;
+    this.errorMessage = errorMessage;
+  }
+
+  /**
+   * @return the path as it was given to the operation
+   */
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * @return whether the path was successfully processed
+   */
+  public boolean isSuccessful() {
+    return successful;
+  }
+
+  /**
+   * @return the {@link SftpFileAttributes} of the file, or {@code null} if the operation doesn't obtain them or it failed
+   */
+  public SftpFileAttributes getAttributes() {
+    return attributes;
+  }
+
+  /**
+   * @return a description of the failure, or {@code null} if the path was successfully processed
+   */
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+}
@@ -23,6 +23,7 @@ import java.util.Date;
 public class SftpFileAttributes extends AbstractFileAttributes {
 
   private LocalDateTime timestamp;
+  private long modifiedTime;
   private long size;
   private boolean regularSize;
   private boolean directory;
@@ -37,7 +38,8 @@ public class SftpFileAttributes extends AbstractFileAttributes {
   public SftpFileAttributes(Path path, SftpATTRS attrs) {
     super(path);
 
-    Date timestamp = new Date(((long) attrs.getMTime()) * 1000L);
+    this.modifiedTime = attrs.getMTime();
+    Date timestamp = new Date(modifiedTime * 1000L);
     this.timestamp = asDateTime(timestamp.toInstant());
     this.size = attrs.getSize();
     this.regularSize = attrs.isReg();
@@ -52,6 +54,16 @@ public class SftpFileAttributes extends AbstractFileAttributes {
     return timestamp;
   }
 
+  /**
+   * Unlike {@link #getTimestamp()}, this value is not shifted into the local time zone, so it is unambiguous even when
+   * the local clock is set back.
+   *
+   * @return The last time the file was modified, in seconds since the epoch, as reported by the server
+   */
+  public long getModifiedTime() {
+    return modifiedTime;
+  }
+
   /**
    * {@inheritDoc}
    */
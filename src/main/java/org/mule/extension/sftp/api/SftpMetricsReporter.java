@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.api;
+
+/**
+ * Receives the measurements of the operations executed by SFTP configs which have metrics enabled, so that they can be
+ * forwarded to a monitoring system.
+ * <p>
+ * Implementations are discovered through {@link java.util.ServiceLoader}, by listing them in a
+ * {@code META-INF/services/org.mule.extension.sftp.api.SftpMetricsReporter} resource. They are invoked on the thread
+ * which executed the operation, so they should return quickly and never throw.
+ *
+ * @since 1.0
+ */
+public interface SftpMetricsReporter {
+
+  /**
+   * Invoked each time an operation completes
+   *
+   * @param configName    the name of the config which executed the operation
+   * @param operation     the name of the operation, such as {@code read} or {@code delete}
+   * @param durationNanos how long the operation took, in nanoseconds
+   * @param roundTrips    the amount of SFTP requests sent to the server by the operation, across all of its channels. Data
+   *                      transfers and directory listings only contribute an estimate of their requests
+   * @param errorType     the name of the error type with which the operation failed, or {@code null} if it succeeded
+   */
+  void operationCompleted(String configName, String operation, long durationNanos, long roundTrips, String errorType);
+}
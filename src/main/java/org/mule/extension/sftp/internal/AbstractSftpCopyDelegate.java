@@ -11,11 +11,14 @@ import org.mule.extension.file.common.api.FileAttributes;
 import org.mule.extension.file.common.api.FileConnectorConfig;
 import org.mule.extension.file.common.api.FileWriteMode;
 import org.mule.extension.sftp.internal.command.SftpCommand;
+import org.mule.extension.sftp.internal.connection.SftpClient;
 import org.mule.extension.sftp.internal.connection.SftpFileSystem;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.extension.api.exception.ModuleException;
 
+import com.jcraft.jsch.JSchException;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
@@ -44,24 +47,43 @@ public abstract class AbstractSftpCopyDelegate implements SftpCopyDelegate {
   }
 
   /**
-   * Performs a recursive copy
-   *  @param config the config which is parameterizing this operation
+   * Performs a recursive copy.
+   * <p>
+   * The target is written through a second connection from the pool, unless the client is configured to
+   * {@link SftpClient#isCopyOverSameSession() copy over the same session}, in which case an additional channel of the
+   * current connection is used instead.
+   *
+   * @param config the config which is parameterizing this operation
    * @param source the {@link FileAttributes} for the file to be copied
    * @param targetPath the {@link Path} to the target destination
    * @param overwrite whether to overwrite existing target paths
    */
   @Override
   public void doCopy(FileConnectorConfig config, FileAttributes source, Path targetPath, boolean overwrite) {
-    ConnectionHandler<SftpFileSystem> writerConnectionHandler;
     final SftpFileSystem writerConnection;
-    try {
-      writerConnectionHandler = getWriterConnection(config);
-      writerConnection = writerConnectionHandler.getConnection();
-    } catch (ConnectionException e) {
-      throw command
-          .exception(format("FTP Copy operations require the use of two FTP connections. An exception was found trying to obtain second connection to"
-              + "copy the path '%s' to '%s'", source.getPath(), targetPath), e);
+    final Runnable writerConnectionReleaser;
+    if (fileSystem.getClient().isCopyOverSameSession()) {
+      try {
+        writerConnection = fileSystem.fork();
+      } catch (JSchException e) {
+        throw command.exception(format("An exception was found trying to open an additional channel to copy the path '%s' to '%s'",
+                                       source.getPath(), targetPath),
+                                e);
+      }
+      writerConnectionReleaser = writerConnection::disconnect;
+    } else {
+      ConnectionHandler<SftpFileSystem> writerConnectionHandler;
+      try {
+        writerConnectionHandler = getWriterConnection(config);
+        writerConnection = writerConnectionHandler.getConnection();
+      } catch (ConnectionException e) {
+        throw command
+            .exception(format("FTP Copy operations require the use of two FTP connections. An exception was found trying to obtain second connection to"
+                + "copy the path '%s' to '%s'", source.getPath(), targetPath), e);
+      }
+      writerConnectionReleaser = writerConnectionHandler::release;
     }
+
     try {
       if (source.isDirectory()) {
         copyDirectory(config, Paths.get(source.getPath()), targetPath, overwrite, writerConnection);
@@ -73,7 +95,7 @@ public abstract class AbstractSftpCopyDelegate implements SftpCopyDelegate {
     } catch (Exception e) {
       throw command.exception(format("Found exception copying file '%s' to '%s'", source, targetPath), e);
     } finally {
-      writerConnectionHandler.release();
+      writerConnectionReleaser.run();
     }
   }
 
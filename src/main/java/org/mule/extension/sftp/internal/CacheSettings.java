@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal;
+
+import static org.mule.runtime.extension.api.annotation.param.display.Placement.ADVANCED_TAB;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups parameters which control how remote metadata is cached on the client side
+ *
+ * @since 1.0
+ */
+public final class CacheSettings {
+
+  /**
+   * A scalar value representing how long the attributes of a file obtained by a connection are reused before fetching
+   * them again. This attribute works in tandem with {@link #attributesCacheTtlUnit}.
+   * <p>
+   * Changes performed through the same connection are always visible, but changes performed by other clients may go
+   * unnoticed for up to this amount of time. Defaults to {@code 0}, which disables the cache.
+   */
+  @Parameter
+  @Optional(defaultValue = "0")
+  @Placement(tab = ADVANCED_TAB, order = 10)
+  @Summary("Time during which the attributes of a file are cached")
+  private Integer attributesCacheTtl;
+
+  /**
+   * A {@link TimeUnit} which qualifies the {@link #attributesCacheTtl} attribute.
+   * <p>
+   * Defaults to {@code SECONDS}
+   */
+  @Parameter
+  @Optional(defaultValue = "SECONDS")
+  @Placement(tab = ADVANCED_TAB, order = 9)
+  @Summary("Time unit to be used in the Attributes Cache TTL")
+  private TimeUnit attributesCacheTtlUnit;
+
+  /**
+   * The maximum number of file attributes cached per connection. The least recently used entries are evicted first.
+   * <p>
+   * Defaults to {@code 1000}
+   */
+  @Parameter
+  @Optional(defaultValue = "1000")
+  @Placement(tab = ADVANCED_TAB, order = 11)
+  @Summary("Maximum number of file attributes cached per connection")
+  private Integer attributesCacheMaxEntries;
+
+  /**
+   * The maximum number of directories remembered to exist, shared by all the connections of this config. Known directories
+   * are not checked again when they or their children are created, which makes creating parent directories free once they
+   * were seen. Directories deleted or renamed through this config are forgotten.
+   * <p>
+   * Defaults to {@code 0}, which disables the cache, since directories deleted by other clients would not be recreated.
+   */
+  @Parameter
+  @Optional(defaultValue = "0")
+  @Placement(tab = ADVANCED_TAB, order = 12)
+  @Summary("Maximum number of directories remembered to exist")
+  private Integer knownDirectoriesMaxEntries;
+
+  public Integer getAttributesCacheTtl() {
+    return attributesCacheTtl;
+  }
+
+  public void setAttributesCacheTtl(Integer attributesCacheTtl) {
+    this.attributesCacheTtl = attributesCacheTtl;
+  }
+
+  public TimeUnit getAttributesCacheTtlUnit() {
+    return attributesCacheTtlUnit;
+  }
+
+  public void setAttributesCacheTtlUnit(TimeUnit attributesCacheTtlUnit) {
+    this.attributesCacheTtlUnit = attributesCacheTtlUnit;
+  }
+
+  public Integer getAttributesCacheMaxEntries() {
+    return attributesCacheMaxEntries;
+  }
+
+  public void setAttributesCacheMaxEntries(Integer attributesCacheMaxEntries) {
+    this.attributesCacheMaxEntries = attributesCacheMaxEntries;
+  }
+
+  public Integer getKnownDirectoriesMaxEntries() {
+    return knownDirectoriesMaxEntries;
+  }
+
+  public void setKnownDirectoriesMaxEntries(Integer knownDirectoriesMaxEntries) {
+    this.knownDirectoriesMaxEntries = knownDirectoriesMaxEntries;
+  }
+}
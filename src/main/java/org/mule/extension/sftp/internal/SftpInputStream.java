@@ -34,9 +34,13 @@ public class SftpInputStream extends AbstractFileInputStream {
 
   protected static Supplier<InputStream> getStreamSupplier(SftpFileAttributes attributes,
                                                            ConnectionHandler<SftpFileSystem> connectionHandler) {
+    return getStreamSupplier(attributes, connectionHandler::getConnection);
+  }
+
+  private static Supplier<InputStream> getStreamSupplier(SftpFileAttributes attributes, ConnectionSupplier connectionSupplier) {
     Supplier<InputStream> streamSupplier = () -> {
       try {
-        return connectionHandler.getConnection().retrieveFileContent(attributes);
+        return connectionSupplier.get().retrieveFileContent(attributes);
       } catch (ConnectionException e) {
         throw new MuleRuntimeException(createStaticMessage("Could not obtain connection to fetch file " + attributes.getPath()),
                                        e);
@@ -59,19 +63,32 @@ public class SftpInputStream extends AbstractFileInputStream {
    */
   public static SftpInputStream newInstance(SftpConnector config, SftpFileAttributes attributes, PathLock lock)
       throws ConnectionException {
-    ConnectionHandler<SftpFileSystem> connectionHandler = getConnectionHandler(config);
-    return new SftpInputStream(getStreamSupplier(attributes, connectionHandler), connectionHandler, lock);
+    ConnectionReference connection = new ConnectionReference(config);
+    connection.get();
+    return new SftpInputStream(getStreamSupplier(attributes, connection), connection, lock);
   }
 
-  private final SftpFileSystem ftpFileSystem;
-  private final ConnectionHandler<SftpFileSystem> connectionHandler;
+  /**
+   * Returns a new instance of this class which doesn't obtain a connection until its contents are first read, so that
+   * streams which are never consumed don't take a connection from the pool.
+   * <p>
+   * Instances returned by this method <b>MUST</b> be closed or fully consumed.
+   *
+   * @param config     the config which is parameterizing this operation
+   * @param attributes a {@link FileAttributes} referencing the file which contents are to be fetched
+   * @param lock       the {@link PathLock} to be used
+   * @return a new {@link SftpFileAttributes}
+   */
+  public static SftpInputStream newLazyInstance(SftpConnector config, SftpFileAttributes attributes, PathLock lock) {
+    ConnectionReference connection = new ConnectionReference(config);
+    return new SftpInputStream(getStreamSupplier(attributes, connection), connection, lock);
+  }
 
-  private SftpInputStream(Supplier<InputStream> streamSupplier, ConnectionHandler<SftpFileSystem> connectionHandler,
-                          PathLock lock)
-      throws ConnectionException {
+  private final ConnectionReference connection;
+
+  private SftpInputStream(Supplier<InputStream> streamSupplier, ConnectionReference connection, PathLock lock) {
     super(new LazyStreamSupplier(streamSupplier), lock);
-    this.connectionHandler = connectionHandler;
-    this.ftpFileSystem = connectionHandler.getConnection();
+    this.connection = connection;
   }
 
   @Override
@@ -79,7 +96,7 @@ public class SftpInputStream extends AbstractFileInputStream {
     try {
       super.doClose();
     } finally {
-      connectionHandler.release();
+      connection.release();
     }
   }
 
@@ -87,6 +104,50 @@ public class SftpInputStream extends AbstractFileInputStream {
    * @return the {@link SftpFileSystem} used to obtain the stream
    */
   protected SftpFileSystem getFtpFileSystem() {
-    return ftpFileSystem;
+    try {
+      return connection.get();
+    } catch (ConnectionException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not obtain connection"), e);
+    }
+  }
+
+  @FunctionalInterface
+  private interface ConnectionSupplier {
+
+    SftpFileSystem get() throws ConnectionException;
+  }
+
+  /**
+   * Obtains a connection handler the first time it's needed and holds it until it's released
+   */
+  private static final class ConnectionReference implements ConnectionSupplier {
+
+    private final SftpConnector config;
+    private ConnectionHandler<SftpFileSystem> connectionHandler;
+    private boolean released = false;
+
+    private ConnectionReference(SftpConnector config) {
+      this.config = config;
+    }
+
+    @Override
+    public synchronized SftpFileSystem get() throws ConnectionException {
+      if (released) {
+        throw new IllegalStateException("Connection was already released");
+      }
+
+      if (connectionHandler == null) {
+        connectionHandler = getConnectionHandler(config);
+      }
+      return connectionHandler.getConnection();
+    }
+
+    private synchronized void release() {
+      released = true;
+      if (connectionHandler != null) {
+        connectionHandler.release();
+        connectionHandler = null;
+      }
+    }
   }
 }
@@ -21,9 +21,13 @@ import org.mule.extension.file.common.api.exceptions.FileListErrorTypeProvider;
 import org.mule.extension.file.common.api.exceptions.FileReadErrorTypeProvider;
 import org.mule.extension.file.common.api.exceptions.FileRenameErrorTypeProvider;
 import org.mule.extension.file.common.api.exceptions.FileWriteErrorTypeProvider;
+import org.mule.extension.sftp.api.SftpBulkOperationResult;
 import org.mule.extension.sftp.api.SftpFileAttributes;
 import org.mule.extension.sftp.api.SftpFileMatcher;
+import org.mule.extension.sftp.internal.connection.SftpClient;
 import org.mule.extension.sftp.internal.connection.SftpFileSystem;
+import org.mule.extension.sftp.internal.metrics.SftpMetrics;
+import org.mule.extension.sftp.internal.metrics.SftpTrace;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.extension.api.annotation.error.Throws;
 import org.mule.runtime.extension.api.annotation.param.Config;
@@ -39,6 +43,8 @@ import org.mule.runtime.extension.api.runtime.operation.Result;
 
 import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import javax.activation.MimetypesFileTypeMap;
 
@@ -73,7 +79,7 @@ public final class SftpOperations extends BaseFileSystemOperations {
                                                             @Path(type = DIRECTORY) String directoryPath,
                                                             @Optional(defaultValue = "false") boolean recursive,
                                                             @Optional @DisplayName("File Matching Rules") @Summary("Matcher to filter the listed files") SftpFileMatcher matcher) {
-    List result = doList(config, fileSystem, directoryPath, recursive, matcher);
+    List result = measure(fileSystem, "list", () -> doList(config, fileSystem, directoryPath, recursive, matcher));
     return (List<Result<InputStream, SftpFileAttributes>>) result;
   }
 
@@ -106,7 +112,7 @@ public final class SftpOperations extends BaseFileSystemOperations {
                                                       @DisplayName("File Path") @Path(type = FILE) String path,
                                                       @Optional(defaultValue = "false") @Placement(
                                                           tab = ADVANCED_TAB) boolean lock) {
-    Result result = doRead(config, fileSystem, path, lock);
+    Result result = measure(fileSystem, "read", () -> doRead(config, fileSystem, path, lock));
     return (Result<InputStream, SftpFileAttributes>) result;
   }
 
@@ -140,7 +146,8 @@ public final class SftpOperations extends BaseFileSystemOperations {
                     @Optional(defaultValue = "true") boolean createParentDirectories,
                     @Optional(defaultValue = "false") boolean lock, @Optional(
                         defaultValue = "OVERWRITE") @Summary("How the file is going to be written") @DisplayName("Write Mode") FileWriteMode mode) {
-    super.doWrite(config, fileSystem, path, content, encoding, createParentDirectories, lock, mode);
+    measureVoid(fileSystem, "write",
+                () -> super.doWrite(config, fileSystem, path, content, encoding, createParentDirectories, lock, mode));
   }
 
   /**
@@ -170,7 +177,8 @@ public final class SftpOperations extends BaseFileSystemOperations {
   public void copy(@Config FileConnectorConfig config, @Connection FileSystem fileSystem, @Optional @Path String sourcePath,
                    @Path(type = DIRECTORY) String targetPath, @Optional(defaultValue = "true") boolean createParentDirectories,
                    @Optional(defaultValue = "false") boolean overwrite, @Optional String renameTo) {
-    super.doCopy(config, fileSystem, sourcePath, targetPath, createParentDirectories, overwrite, renameTo);
+    measureVoid(fileSystem, "copy",
+                () -> super.doCopy(config, fileSystem, sourcePath, targetPath, createParentDirectories, overwrite, renameTo));
   }
 
   /**
@@ -200,7 +208,8 @@ public final class SftpOperations extends BaseFileSystemOperations {
   public void move(@Config FileConnectorConfig config, @Connection FileSystem fileSystem, @Optional @Path String sourcePath,
                    @Path(type = DIRECTORY) String targetPath, @Optional(defaultValue = "true") boolean createParentDirectories,
                    @Optional(defaultValue = "false") boolean overwrite, @Optional String renameTo) {
-    super.doMove(config, fileSystem, sourcePath, targetPath, createParentDirectories, overwrite, renameTo);
+    measureVoid(fileSystem, "move",
+                () -> super.doMove(config, fileSystem, sourcePath, targetPath, createParentDirectories, overwrite, renameTo));
   }
 
 
@@ -214,7 +223,7 @@ public final class SftpOperations extends BaseFileSystemOperations {
   @Summary("Deletes a file")
   @Throws(FileDeleteErrorTypeProvider.class)
   public void delete(@Connection FileSystem fileSystem, @Optional @Path String path) {
-    super.doDelete(fileSystem, path);
+    measureVoid(fileSystem, "delete", () -> super.doDelete(fileSystem, path));
   }
 
   /**
@@ -232,7 +241,79 @@ public final class SftpOperations extends BaseFileSystemOperations {
   @Throws(FileRenameErrorTypeProvider.class)
   public void rename(@Connection FileSystem fileSystem, @Optional @Path String path,
                      @DisplayName("New Name") String to, @Optional(defaultValue = "false") boolean overwrite) {
-    super.doRename(fileSystem, path, to, overwrite);
+    measureVoid(fileSystem, "rename", () -> super.doRename(fileSystem, path, to, overwrite));
+  }
+
+  /**
+   * Obtains the attributes of each of the given {@code paths}.
+   * <p>
+   * Requests are sent concurrently over up to {@code concurrency} channels of the same connection, so obtaining the
+   * attributes of many files takes roughly as long as a single round trip to the server per {@code concurrency} paths. A
+   * path which doesn't exist or can't be accessed doesn't cause the operation to fail. Instead, its result is flagged as
+   * unsuccessful.
+   *
+   * @param fileSystem a reference to the host {@link FileSystem}
+   * @param paths the paths of the files
+   * @param concurrency the maximum amount of requests to keep in flight
+   * @return a {@link SftpBulkOperationResult} per path, in the same order as {@code paths}
+   */
+  @Summary("Obtains the attributes of many files at once")
+  @Throws(FileReadErrorTypeProvider.class)
+  public List<SftpBulkOperationResult> bulkGetAttributes(@Connection SftpFileSystem fileSystem, List<String> paths,
+                                                         @Optional(defaultValue = "8") @Placement(
+                                                             tab = ADVANCED_TAB) int concurrency) {
+    return measure(fileSystem, "bulkGetAttributes", () -> {
+      fileSystem.changeToBaseDir();
+      return fileSystem.getBulkCommand().getAttributes(paths, concurrency);
+    });
+  }
+
+  /**
+   * Deletes each of the files or directories pointed by {@code paths}, provided that they're not locked.
+   * <p>
+   * Files are deleted concurrently over up to {@code concurrency} channels of the same connection. Directories are then
+   * deleted recursively, one at a time. A path which can't be deleted doesn't cause the operation to fail. Instead, its
+   * result is flagged as unsuccessful.
+   *
+   * @param fileSystem a reference to the host {@link FileSystem}
+   * @param paths the paths to delete
+   * @param concurrency the maximum amount of requests to keep in flight
+   * @return a {@link SftpBulkOperationResult} per path, in the same order as {@code paths}
+   */
+  @Summary("Deletes many files at once")
+  @Throws(FileDeleteErrorTypeProvider.class)
+  public List<SftpBulkOperationResult> bulkDelete(@Connection SftpFileSystem fileSystem, List<String> paths,
+                                                  @Optional(defaultValue = "8") @Placement(
+                                                      tab = ADVANCED_TAB) int concurrency) {
+    return measure(fileSystem, "bulkDelete", () -> {
+      fileSystem.changeToBaseDir();
+      return fileSystem.getBulkCommand().delete(paths, concurrency);
+    });
+  }
+
+  /**
+   * Renames each of the keys of {@code renames} to the name it's mapped to. As in the rename operation, new names should
+   * not contain any path separator.
+   * <p>
+   * Files are renamed concurrently over up to {@code concurrency} channels of the same connection. A file which can't be
+   * renamed doesn't cause the operation to fail. Instead, its result is flagged as unsuccessful.
+   *
+   * @param fileSystem a reference to the host {@link FileSystem}
+   * @param renames the paths of the files to rename, mapped to their new names
+   * @param overwrite whether or not overwrite the files if the target destination already exists.
+   * @param concurrency the maximum amount of requests to keep in flight
+   * @return a {@link SftpBulkOperationResult} per renamed path
+   */
+  @Summary("Renames many files at once")
+  @Throws(FileRenameErrorTypeProvider.class)
+  public List<SftpBulkOperationResult> bulkRename(@Connection SftpFileSystem fileSystem, Map<String, String> renames,
+                                                  @Optional(defaultValue = "false") boolean overwrite,
+                                                  @Optional(defaultValue = "8") @Placement(
+                                                      tab = ADVANCED_TAB) int concurrency) {
+    return measure(fileSystem, "bulkRename", () -> {
+      fileSystem.changeToBaseDir();
+      return fileSystem.getBulkCommand().rename(renames, overwrite, concurrency);
+    });
   }
 
   /**
@@ -244,6 +325,25 @@ public final class SftpOperations extends BaseFileSystemOperations {
   @Summary("Creates a new directory")
   @Throws(FileRenameErrorTypeProvider.class)
   public void createDirectory(@Connection FileSystem fileSystem, String directoryPath) {
-    super.doCreateDirectory(fileSystem, directoryPath);
+    measureVoid(fileSystem, "createDirectory", () -> super.doCreateDirectory(fileSystem, directoryPath));
+  }
+
+  private <T> T measure(FileSystem fileSystem, String operation, Supplier<T> body) {
+    SftpClient client = ((SftpFileSystem) fileSystem).getClient();
+    SftpMetrics metrics = client.getMetrics();
+    if (metrics == null && !SftpTrace.isLoggingEnabled()) {
+      return body.get();
+    }
+
+    try (SftpTrace trace = client.startTrace(operation)) {
+      return metrics != null ? metrics.measure(operation, trace, body) : body.get();
+    }
+  }
+
+  private void measureVoid(FileSystem fileSystem, String operation, Runnable body) {
+    measure(fileSystem, operation, () -> {
+      body.run();
+      return null;
+    });
   }
 }
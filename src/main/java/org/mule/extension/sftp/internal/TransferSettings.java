@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal;
+
+import static org.mule.runtime.extension.api.annotation.param.display.Placement.ADVANCED_TAB;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+/**
+ * Groups parameters which tune how file contents are transferred
+ *
+ * @since 1.0
+ */
+public final class TransferSettings {
+
+  /**
+   * The maximum number of read or write requests which are kept in flight for each open file. Higher values allow to keep
+   * high latency links busy at the expense of buffering more data in memory.
+   * <p>
+   * Defaults to {@code 16}
+   */
+  @Parameter
+  @Optional(defaultValue = "16")
+  @Placement(tab = ADVANCED_TAB, order = 5)
+  @Summary("Maximum number of outstanding requests per open file")
+  private Integer bulkRequests;
+
+  /**
+   * The number of SFTP channels used to concurrently transfer a single file which exceeds the
+   * {@link #parallelTransferThreshold}, or to concurrently list the subdirectories of a recursive listing. All the channels
+   * are opened over the same SSH session. A value of {@code 1} disables parallel transfers and listings.
+   * <p>
+   * Defaults to {@code 1}
+   */
+  @Parameter
+  @Optional(defaultValue = "1")
+  @Placement(tab = ADVANCED_TAB, order = 6)
+  @Summary("Number of channels used to transfer a single large file")
+  private Integer parallelChannels;
+
+  /**
+   * The size in bytes from which files are read using {@link #parallelChannels} channels. Since the size of the content to
+   * write is not known in advance, writes which span more than one {@link #parallelChunkSize chunk} are always performed in
+   * parallel, unless appending.
+   * <p>
+   * Defaults to {@code 67108864} (64 MB)
+   */
+  @Parameter
+  @Optional(defaultValue = "67108864")
+  @Placement(tab = ADVANCED_TAB, order = 7)
+  @Summary("File size in bytes from which files are transferred in parallel")
+  private Long parallelTransferThreshold;
+
+  /**
+   * The size in bytes of each of the chunks in which a file is split when it's transferred in parallel. Notice that each
+   * parallel write keeps up to two chunks per channel in memory, and each parallel read up to one chunk per channel plus
+   * the one being consumed. With 4 channels and the default size, that's 64 MB per write and 40 MB per read.
+   * <p>
+   * Defaults to {@code 8388608} (8 MB)
+   */
+  @Parameter
+  @Optional(defaultValue = "8388608")
+  @Placement(tab = ADVANCED_TAB, order = 8)
+  @Summary("Size in bytes of the chunks in which files are split when transferred in parallel")
+  private Integer parallelChunkSize;
+
+  /**
+   * Whether copies write into the target over an additional SFTP channel of the connection which reads the source,
+   * instead of obtaining a second connection from the pool. This halves the amount of connections used by copy
+   * operations and prevents them from waiting for each other when the pool is exhausted, at the expense of sharing the
+   * bandwidth of a single SSH session.
+   * <p>
+   * Defaults to {@code false}
+   */
+  @Parameter
+  @Optional(defaultValue = "false")
+  @Placement(tab = ADVANCED_TAB, order = 13)
+  @Summary("Whether copies are performed over a single connection")
+  private Boolean copyOverSameSession;
+
+  public Integer getBulkRequests() {
+    return bulkRequests;
+  }
+
+  public void setBulkRequests(Integer bulkRequests) {
+    this.bulkRequests = bulkRequests;
+  }
+
+  public Integer getParallelChannels() {
+    return parallelChannels;
+  }
+
+  public void setParallelChannels(Integer parallelChannels) {
+    this.parallelChannels = parallelChannels;
+  }
+
+  public Long getParallelTransferThreshold() {
+    return parallelTransferThreshold;
+  }
+
+  public void setParallelTransferThreshold(Long parallelTransferThreshold) {
+    this.parallelTransferThreshold = parallelTransferThreshold;
+  }
+
+  public Integer getParallelChunkSize() {
+    return parallelChunkSize;
+  }
+
+  public void setParallelChunkSize(Integer parallelChunkSize) {
+    this.parallelChunkSize = parallelChunkSize;
+  }
+
+  public Boolean getCopyOverSameSession() {
+    return copyOverSameSession;
+  }
+
+  public void setCopyOverSameSession(Boolean copyOverSameSession) {
+    this.copyOverSameSession = copyOverSameSession;
+  }
+}
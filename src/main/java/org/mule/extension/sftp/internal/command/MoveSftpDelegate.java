@@ -28,6 +28,11 @@ public class MoveSftpDelegate implements SftpCopyDelegate {
   @Override
   public void doCopy(FileConnectorConfig config, FileAttributes source, Path targetPath, boolean overwrite) {
     try {
+      if (overwrite && fileSystem.getClient().supportsAtomicRename()) {
+        command.rename(source.getPath(), targetPath.toString(), true);
+        return;
+      }
+
       if (command.exists(targetPath)) {
         if (overwrite) {
           fileSystem.delete(targetPath.toString());
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.command;
+
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
+import static java.util.concurrent.Executors.newWorkStealingPool;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import org.mule.extension.sftp.api.SftpFileAttributes;
+import org.mule.extension.sftp.internal.connection.ForkedClientPool;
+import org.mule.extension.sftp.internal.connection.SftpClient;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Recursively lists a directory tree by fanning the listing of each subdirectory out to a work stealing pool, each of
+ * which threads uses its own SFTP channel over the session of a given {@link SftpClient}.
+ * <p>
+ * The walk yields the same entries, in the same order, as a depth first traversal which only descends into the
+ * directories accepted by the filter. Symbolic links are resolved before applying the filter, and each linked directory is
+ * only descended into once.
+ *
+ * @since 1.0
+ */
+final class ParallelDirectoryWalker {
+
+  private final SftpClient client;
+  private final int parallelism;
+  private final Predicate<SftpFileAttributes> filter;
+
+  private ExecutorService executor;
+  private ForkedClientPool channels;
+  private final Set<String> linkedDirectories = newKeySet();
+  private final AtomicInteger pending = new AtomicInteger(0);
+  private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+  /**
+   * Creates a new instance
+   *
+   * @param client      the {@link SftpClient} which channels are forked from
+   * @param parallelism the maximum amount of directories to list concurrently
+   * @param filter      the {@link Predicate} that entries need to match in order to be walked and returned
+   */
+  ParallelDirectoryWalker(SftpClient client, int parallelism, Predicate<SftpFileAttributes> filter) {
+    this.client = client;
+    this.parallelism = parallelism;
+    this.filter = filter;
+  }
+
+  /**
+   * Walks the tree rooted at the given {@code path}. Each instance can only walk one tree.
+   *
+   * @param path the path of the root directory
+   * @return the matching entries of the tree, excluding the root itself
+   */
+  List<SftpFileAttributes> walk(String path) {
+    Entry root = new Entry(path, null, true);
+    executor = newWorkStealingPool(parallelism);
+    try (ForkedClientPool channels = new ForkedClientPool(client)) {
+      this.channels = channels;
+      schedule(root);
+      await();
+    } finally {
+      executor.shutdownNow();
+    }
+
+    List<SftpFileAttributes> accumulator = new ArrayList<>();
+    flatten(root, accumulator);
+    return accumulator;
+  }
+
+  private void schedule(Entry directory) {
+    pending.incrementAndGet();
+    executor.execute(() -> {
+      try {
+        if (!completion.isDone()) {
+          list(directory);
+          directory.children.stream().filter(Entry::isDescended).forEach(this::schedule);
+        }
+      } catch (Throwable t) {
+        completion.completeExceptionally(t);
+      } finally {
+        if (pending.decrementAndGet() == 0) {
+          completion.complete(null);
+        }
+      }
+    });
+  }
+
+  private void list(Entry directory) {
+    SftpClient channel = channels.acquire();
+    try {
+      List<SftpFileAttributes> entries = new ArrayList<>();
+      channel.list(directory.path, file -> {
+        if (file.isSymbolicLink() || filter.test(file)) {
+          entries.add(file);
+        }
+      });
+
+      for (SftpFileAttributes entry : entries) {
+        if (!entry.isSymbolicLink()) {
+          directory.children.add(new Entry(entry.getPath(), entry, true));
+          continue;
+        }
+
+        SftpFileAttributes file = channel.followLink(entry);
+        if (filter.test(file)) {
+          boolean descend = file.isDirectory() && linkedDirectories.add(channel.getRealPath(file.getPath()));
+          directory.children.add(new Entry(file.getPath(), file, descend));
+        }
+      }
+    } finally {
+      channels.release(channel);
+    }
+  }
+
+  private void await() {
+    try {
+      completion.get();
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      throw new MuleRuntimeException(createStaticMessage("Interrupted while listing directory tree"), e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new MuleRuntimeException(createStaticMessage("Exception was found listing directory tree"), cause);
+    }
+  }
+
+  private void flatten(Entry directory, List<SftpFileAttributes> accumulator) {
+    for (Entry entry : directory.children) {
+      accumulator.add(entry.file);
+      if (entry.isDescended()) {
+        flatten(entry, accumulator);
+      }
+    }
+  }
+
+  private static class Entry {
+
+    private final String path;
+    private final SftpFileAttributes file;
+    private final List<Entry> children;
+
+    private Entry(String path, SftpFileAttributes file, boolean descend) {
+      this.path = path;
+      this.file = file;
+      children = descend && (file == null || file.isDirectory()) ? new ArrayList<>() : null;
+    }
+
+    private boolean isDescended() {
+      return children != null;
+    }
+  }
+}
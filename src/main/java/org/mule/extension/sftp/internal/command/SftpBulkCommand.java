@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.command;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.lang.Thread.currentThread;
+import static org.mule.extension.sftp.api.SftpBulkOperationResult.failure;
+import static org.mule.extension.sftp.api.SftpBulkOperationResult.success;
+import static org.mule.extension.sftp.internal.SftpUtils.normalizePath;
+import static org.mule.extension.sftp.internal.connection.SftpClient.isRenameRefused;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.extension.file.common.api.exceptions.FileAlreadyExistsException;
+import org.mule.extension.file.common.api.exceptions.IllegalPathException;
+import org.mule.extension.sftp.api.SftpBulkOperationResult;
+import org.mule.extension.sftp.api.SftpFileAttributes;
+import org.mule.extension.sftp.internal.connection.AsyncSftpClient;
+import org.mule.extension.sftp.internal.connection.SftpClient;
+import org.mule.extension.sftp.internal.connection.SftpFileSystem;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+
+/**
+ * A {@link SftpCommand} which applies the same operation to many paths at once.
+ * <p>
+ * Paths are resolved against the current working directory and then processed concurrently over several SFTP channels
+ * opened on the connection's SSH session, so that the round trips of the individual requests overlap. A failure on one
+ * path doesn't prevent the others from being processed. Instead, an {@link SftpBulkOperationResult} is returned for each
+ * path, in the same order in which they were given.
+ *
+ * @since 1.0
+ */
+public final class SftpBulkCommand extends SftpCommand {
+
+  private static final Logger LOGGER = getLogger(SftpBulkCommand.class);
+
+  /**
+   * {@inheritDoc}
+   */
+  public SftpBulkCommand(SftpFileSystem fileSystem, SftpClient client) {
+    super(fileSystem, client);
+  }
+
+  /**
+   * Obtains the attributes of each of the given {@code paths}
+   *
+   * @param paths       the paths of the files
+   * @param concurrency the maximum amount of requests to keep in flight
+   * @return a {@link SftpBulkOperationResult} per path, carrying its {@link SftpFileAttributes}
+   */
+  public List<SftpBulkOperationResult> getAttributes(List<String> paths, int concurrency) {
+    return execute(paths, concurrency, (channel, path, resolvedPath) -> {
+      SftpFileAttributes attributes = channel.getAttributes(resolvedPath);
+      if (attributes == null) {
+        throw pathNotFoundException(resolvedPath);
+      }
+      return attributes;
+    });
+  }
+
+  /**
+   * Deletes each of the given {@code paths}, provided that they're not locked. Directories are deleted recursively, one
+   * at a time, once every file was processed.
+   *
+   * @param paths       the paths of the files or directories to delete
+   * @param concurrency the maximum amount of requests to keep in flight
+   * @return a {@link SftpBulkOperationResult} per path
+   */
+  public List<SftpBulkOperationResult> delete(List<String> paths, int concurrency) {
+    List<SftpBulkOperationResult> results = execute(paths, concurrency, (channel, path, resolvedPath) -> {
+      fileSystem.verifyNotLocked(resolvedPath);
+      try {
+        channel.deleteFile(normalizePath(resolvedPath));
+        return null;
+      } catch (Exception e) {
+        SftpFileAttributes attributes = channel.getAttributes(resolvedPath);
+        if (attributes == null) {
+          throw pathNotFoundException(resolvedPath);
+        } else if (attributes.isDirectory()) {
+          return attributes;
+        }
+        throw e;
+      }
+    });
+
+    for (int i = 0; i < results.size(); i++) {
+      SftpBulkOperationResult result = results.get(i);
+      if (result.isSuccessful() && result.getAttributes() != null) {
+        results.set(i, deleteDirectory(result.getPath()));
+      }
+    }
+
+    return results;
+  }
+
+  /**
+   * Renames each of the keys of {@code renames} to the name it's mapped to. As in the single file rename, new names should
+   * not contain any path separator, and overwritten directories are deleted recursively. Such renames are performed one at
+   * a time, once every other rename was processed.
+   *
+   * @param renames     the paths of the files to rename, mapped to their new names
+   * @param overwrite   whether to overwrite the target files if they already exist
+   * @param concurrency the maximum amount of requests to keep in flight
+   * @return a {@link SftpBulkOperationResult} per renamed path
+   */
+  public List<SftpBulkOperationResult> rename(Map<String, String> renames, boolean overwrite, int concurrency) {
+    boolean atomic = overwrite && client.supportsAtomicRename();
+    List<SftpBulkOperationResult> results = execute(new ArrayList<>(renames.keySet()), concurrency, (channel, path, resolvedPath) -> {
+      String newName = renames.get(path);
+      if (newName == null || newName.contains("/")) {
+        throw new IllegalPathException(format("'%s' is not a valid name to rename '%s' to. It should not contain any file "
+            + "separator character", newName, path));
+      }
+
+      fileSystem.verifyNotLocked(resolvedPath);
+      Path target = resolvedPath.resolveSibling(newName);
+      if (atomic) {
+        fileSystem.verifyNotLocked(target);
+        try {
+          channel.rename(normalizePath(resolvedPath), normalizePath(target));
+          return null;
+        } catch (Exception e) {
+          if (!isRenameRefused(e)) {
+            throw e;
+          }
+          LOGGER.debug(format("Could not atomically rename '%s' to '%s'. Deleting the target first", resolvedPath, target), e);
+        }
+      }
+
+      SftpFileAttributes existing = channel.getAttributes(target);
+      if (existing != null) {
+        if (!overwrite) {
+          throw new FileAlreadyExistsException(format("'%s' cannot be renamed because '%s' already exists", resolvedPath,
+                                                      target));
+        } else if (existing.isDirectory()) {
+          return existing;
+        }
+        fileSystem.verifyNotLocked(target);
+        channel.deleteFile(normalizePath(target));
+      }
+
+      channel.rename(normalizePath(resolvedPath), normalizePath(target));
+      return null;
+    });
+
+    for (int i = 0; i < results.size(); i++) {
+      SftpBulkOperationResult result = results.get(i);
+      if (result.isSuccessful() && result.getAttributes() != null) {
+        results.set(i, renameOverDirectory(result.getPath(), renames.get(result.getPath())));
+      }
+    }
+
+    return results;
+  }
+
+  private SftpBulkOperationResult renameOverDirectory(String path, String newName) {
+    try {
+      rename(path, newName, true);
+      return success(path, null);
+    } catch (Exception e) {
+      LOGGER.debug(format("Could not rename '%s' to '%s'", path, newName), e);
+      return failure(path, describe(e));
+    }
+  }
+
+  private SftpBulkOperationResult deleteDirectory(String path) {
+    try {
+      fileSystem.delete(path);
+      return success(path, null);
+    } catch (Exception e) {
+      LOGGER.debug(format("Could not delete directory '%s'", path), e);
+      return failure(path, describe(e));
+    }
+  }
+
+  private List<SftpBulkOperationResult> execute(List<String> paths, int concurrency, BulkOperation operation) {
+    List<SftpBulkOperationResult> results = new ArrayList<>(paths.size());
+    if (paths.isEmpty()) {
+      return results;
+    }
+
+    List<CompletableFuture<SftpFileAttributes>> outcomes = new ArrayList<>(paths.size());
+    try (AsyncSftpClient asyncClient = new AsyncSftpClient(client, max(1, min(concurrency, paths.size())))) {
+      for (String path : paths) {
+        Path resolvedPath;
+        try {
+          resolvedPath = resolvePath(normalizePath(path)).normalize();
+        } catch (Exception e) {
+          CompletableFuture<SftpFileAttributes> outcome = new CompletableFuture<>();
+          outcome.completeExceptionally(e);
+          outcomes.add(outcome);
+          continue;
+        }
+
+        outcomes.add(asyncClient.submit(channel -> operation.execute(channel, path, resolvedPath)));
+      }
+
+      for (int i = 0; i < paths.size(); i++) {
+        results.add(await(paths.get(i), outcomes.get(i)));
+      }
+    }
+
+    return results;
+  }
+
+  private SftpBulkOperationResult await(String path, CompletableFuture<SftpFileAttributes> outcome) {
+    try {
+      return success(path, outcome.get());
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      throw exception(format("Interrupted while processing '%s'", path), e);
+    } catch (ExecutionException e) {
+      LOGGER.debug(format("Bulk operation failed for path '%s'", path), e.getCause());
+      return failure(path, describe(e.getCause()));
+    }
+  }
+
+  private String describe(Throwable failure) {
+    return failure.getMessage() != null ? failure.getMessage() : failure.getClass().getName();
+  }
+
+  @FunctionalInterface
+  private interface BulkOperation {
+
+    SftpFileAttributes execute(SftpClient channel, String path, Path resolvedPath) throws Exception;
+  }
+}
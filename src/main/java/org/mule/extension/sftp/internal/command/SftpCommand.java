@@ -9,6 +9,7 @@ package org.mule.extension.sftp.internal.command;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.mule.extension.sftp.internal.SftpUtils.normalizePath;
+import static org.mule.extension.sftp.internal.connection.SftpClient.isRenameRefused;
 import org.mule.extension.file.common.api.FileAttributes;
 import org.mule.extension.file.common.api.FileConnectorConfig;
 import org.mule.extension.file.common.api.FileSystem;
@@ -96,7 +97,8 @@ public abstract class SftpCommand extends FileCommand<SftpFileSystem> {
    */
   @Override
   protected boolean exists(Path path) {
-    return getBasePath(fileSystem).equals(path) || ROOT.equals(path.toString()) || getFile(normalizePath(path)) != null;
+    return getBasePath(fileSystem).equals(path) || ROOT.equals(path.toString())
+        || client.isKnownDirectory(normalizePath(path)) || getFile(normalizePath(path)) != null;
   }
 
   /**
@@ -168,6 +170,10 @@ public abstract class SftpCommand extends FileCommand<SftpFileSystem> {
    * <p>
    * This method performs path resolution and validation and eventually delegates into {@link #doRename(String, String)}, in which
    * the actual renaming implementation is.
+   * <p>
+   * When overwriting and the server {@link SftpClient#supportsAtomicRename() supports atomic renames}, the rename is
+   * attempted right away, replacing any existing target in a single operation, provided that the target is not locked. If
+   * the server refuses to replace the target, it's deleted first as usual.
    *
    * @param filePath the path of the file to be renamed
    * @param newName the new name
@@ -177,6 +183,11 @@ public abstract class SftpCommand extends FileCommand<SftpFileSystem> {
     Path source = resolveExistingPath(filePath);
     Path target = source.getParent().resolve(newName);
 
+    if (overwrite && client.supportsAtomicRename() && tryAtomicRename(source, target)) {
+      LOGGER.debug("{} renamed to {}", filePath, newName);
+      return;
+    }
+
     if (exists(target)) {
       if (!overwrite) {
         throw new FileAlreadyExistsException(format("'%s' cannot be renamed because '%s' already exists", source, target));
@@ -197,6 +208,20 @@ public abstract class SftpCommand extends FileCommand<SftpFileSystem> {
     }
   }
 
+  private boolean tryAtomicRename(Path source, Path target) {
+    fileSystem.verifyNotLocked(target);
+    try {
+      doRename(source.toString(), target.toString());
+      return true;
+    } catch (Exception e) {
+      if (!isRenameRefused(e)) {
+        throw exception(format("Exception was found renaming '%s' to '%s'", source, target), e);
+      }
+      LOGGER.debug(format("Could not atomically rename '%s' to '%s'. Deleting the target first", source, target), e);
+      return false;
+    }
+  }
+
   /**
    * Template method which works in tandem with {@link #rename(String, String, boolean)}.
    * <p>
@@ -270,7 +295,11 @@ public abstract class SftpCommand extends FileCommand<SftpFileSystem> {
   }
 
   /**
-   * Creates the directory pointed by {@code directoryPath} also creating any missing parent directories
+   * Creates the directory pointed by {@code directoryPath} also creating any missing parent directories.
+   * <p>
+   * Directories are optimistically created from the deepest one upwards, until one of them is successfully created or
+   * found to exist. The missing ones below it are then created downwards. Directories already known to exist are not
+   * checked again.
    *
    * @param directoryPath the {@link Path} to the directory you want to create
    */
@@ -278,8 +307,8 @@ public abstract class SftpCommand extends FileCommand<SftpFileSystem> {
   protected void doMkDirs(Path directoryPath) {
     Stack<Path> fragments = new Stack<>();
     for (int i = directoryPath.getNameCount(); i > 0; i--) {
-      Path subPath = Paths.get("/").resolve(directoryPath.subpath(0, i));
-      if (exists(subPath)) {
+      Path subPath = Paths.get(ROOT).resolve(directoryPath.subpath(0, i));
+      if (client.tryMkdir(subPath.toString())) {
         break;
       }
       fragments.push(subPath);
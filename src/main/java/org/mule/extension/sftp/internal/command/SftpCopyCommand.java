@@ -6,15 +6,41 @@
  */
 package org.mule.extension.sftp.internal.command;
 
+import static java.lang.String.format;
+import static java.lang.Thread.currentThread;
+import static java.util.Collections.synchronizedSortedMap;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.extension.file.common.api.FileWriteMode.CREATE_NEW;
+import static org.mule.extension.file.common.api.FileWriteMode.OVERWRITE;
+import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.extension.file.common.api.FileAttributes;
 import org.mule.extension.file.common.api.FileConnectorConfig;
 import org.mule.extension.file.common.api.command.CopyCommand;
+import org.mule.extension.sftp.api.SftpFileAttributes;
 import org.mule.extension.sftp.internal.AbstractSftpCopyDelegate;
 import org.mule.extension.sftp.internal.connection.SftpClient;
 import org.mule.extension.sftp.internal.connection.SftpFileSystem;
+import org.mule.runtime.extension.api.exception.ModuleException;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.jcraft.jsch.JSchException;
+
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
 
 /**
  * A {@link SftpCommand} which implements the {@link CopyCommand} contract
@@ -23,6 +49,8 @@ import java.nio.file.Paths;
  */
 public class SftpCopyCommand extends SftpCommand implements CopyCommand {
 
+  private static final Logger LOGGER = getLogger(SftpCopyCommand.class);
+
   /**
    * {@inheritDoc}
    */
@@ -48,6 +76,13 @@ public class SftpCopyCommand extends SftpCommand implements CopyCommand {
     @Override
     protected void copyDirectory(FileConnectorConfig config, Path sourcePath, Path target, boolean overwrite,
                                  SftpFileSystem writerConnection) {
+      int parallelism = client.getParallelChannels() / 2;
+      if (parallelism > 1) {
+        LOGGER.debug("Copying directory {} over {} pairs of channels", sourcePath, parallelism);
+        new ParallelDirectoryCopy(config, writerConnection, parallelism, overwrite).copy(sourcePath, target);
+        return;
+      }
+
       for (FileAttributes fileAttributes : client.list(sourcePath.toString())) {
         if (isVirtualDirectory(fileAttributes.getName())) {
           continue;
@@ -62,4 +97,179 @@ public class SftpCopyCommand extends SftpCommand implements CopyCommand {
       }
     }
   }
+
+  /**
+   * Copies a directory tree by listing it on the calling thread while the files are concurrently copied, each of them
+   * read and written over a pair of SFTP channels forked from the reader and writer connections.
+   * <p>
+   * Each file is copied as in the serial copy: existing targets are deleted through the file system, so that locked
+   * targets are not overwritten, or the copy fails if overwriting is not allowed, and the content is written through the
+   * write command. At most half as many files as {@link SftpClient#getParallelChannels() parallel channels} are copied at
+   * a time, so that the channels of the pairs never exceed that amount, and the forked channels don't parallelize their
+   * own transfers any further. Once a copy fails no further copies are started, and the failures of the ones which were
+   * already running are attached as suppressed exceptions of the failure of the first file in listing order.
+   */
+  private class ParallelDirectoryCopy {
+
+    private final FileConnectorConfig config;
+    private final SftpFileSystem writerConnection;
+    private final int parallelism;
+    private final boolean overwrite;
+    private final SortedMap<Integer, Exception> failures = synchronizedSortedMap(new TreeMap<>());
+    private final Set<Path> targetDirectories = new HashSet<>();
+    private final Queue<ChannelPair> idlePairs = new ConcurrentLinkedQueue<>();
+    private final List<ChannelPair> pairs = new CopyOnWriteArrayList<>();
+    private int submitted = 0;
+
+    private ParallelDirectoryCopy(FileConnectorConfig config, SftpFileSystem writerConnection, int parallelism,
+                                  boolean overwrite) {
+      this.config = config;
+      this.writerConnection = writerConnection;
+      this.parallelism = parallelism;
+      this.overwrite = overwrite;
+    }
+
+    private void copy(Path sourcePath, Path target) {
+      ExecutorService executor = newFixedThreadPool(parallelism, new ThreadFactoryBuilder()
+          .setNameFormat("sftp-directory-copy-%d").setDaemon(true).build());
+      Semaphore window = new Semaphore(parallelism * 2);
+
+      try {
+        try {
+          walk(sourcePath, target, executor, window);
+        } finally {
+          executor.shutdown();
+          awaitTermination(executor);
+        }
+      } finally {
+        pairs.forEach(ChannelPair::disconnect);
+      }
+
+      if (!failures.isEmpty()) {
+        Exception failure = failures.remove(failures.firstKey());
+        failures.values().forEach(failure::addSuppressed);
+        if (failure instanceof ModuleException) {
+          throw (ModuleException) failure;
+        }
+        throw exception(format("Found exception copying directory '%s' to '%s'", sourcePath, target), failure);
+      }
+    }
+
+    private void walk(Path sourceDirectory, Path targetDirectory, ExecutorService executor, Semaphore window) {
+      for (SftpFileAttributes file : client.list(sourceDirectory.toString())) {
+        if (!failures.isEmpty()) {
+          return;
+        }
+
+        if (isVirtualDirectory(file.getName())) {
+          continue;
+        }
+
+        Path targetPath = targetDirectory.resolve(file.getName());
+        if (file.isDirectory()) {
+          walk(Paths.get(file.getPath()), targetPath, executor, window);
+          continue;
+        }
+
+        if (targetDirectories.add(targetDirectory)) {
+          mkdirs(targetDirectory);
+        }
+
+        acquire(window);
+        final int index = submitted++;
+        executor.execute(() -> {
+          try {
+            copyFile(file, targetPath);
+          } catch (Exception e) {
+            failures.put(index, e);
+          } finally {
+            window.release();
+          }
+        });
+      }
+    }
+
+    private void copyFile(SftpFileAttributes source, Path target) throws Exception {
+      ChannelPair pair = acquirePair();
+      try {
+        SftpFileAttributes targetFile = pair.writer.getClient().getAttributes(target);
+        if (targetFile != null) {
+          if (!overwrite) {
+            throw alreadyExistsException(target);
+          }
+          pair.writer.delete(targetFile.getPath());
+        }
+
+        try (InputStream content = pair.reader.retrieveFileContent(source)) {
+          pair.writer.write(target.toString(), content, overwrite ? OVERWRITE : CREATE_NEW, false, true,
+                            config.getDefaultWriteEncoding());
+        }
+      } finally {
+        releasePair(pair);
+      }
+    }
+
+    /**
+     * Obtains an idle pair of channels, forking a new one if none is available. Since at most {@link #parallelism} files
+     * are copied at the same time, no more than that amount of pairs is ever forked.
+     */
+    private ChannelPair acquirePair() throws JSchException {
+      ChannelPair pair = idlePairs.poll();
+      if (pair == null) {
+        pair = new ChannelPair(fork(fileSystem), fork(writerConnection));
+        pairs.add(pair);
+      }
+      return pair;
+    }
+
+    private void releasePair(ChannelPair pair) {
+      if (pair.reader.getClient().isConnected() && pair.writer.getClient().isConnected()) {
+        idlePairs.add(pair);
+      } else {
+        pairs.remove(pair);
+        pair.disconnect();
+      }
+    }
+
+    private SftpFileSystem fork(SftpFileSystem connection) throws JSchException {
+      SftpFileSystem fork = connection.fork();
+      fork.getClient().setParallelChannels(1);
+      return fork;
+    }
+
+    private void acquire(Semaphore window) {
+      try {
+        window.acquire();
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+        throw exception("Interrupted while copying directory", e);
+      }
+    }
+
+    private void awaitTermination(ExecutorService executor) {
+      try {
+        executor.awaitTermination(Long.MAX_VALUE, MILLISECONDS);
+      } catch (InterruptedException e) {
+        executor.shutdownNow();
+        currentThread().interrupt();
+        throw exception("Interrupted while copying directory", e);
+      }
+    }
+  }
+
+  private static class ChannelPair {
+
+    private final SftpFileSystem reader;
+    private final SftpFileSystem writer;
+
+    private ChannelPair(SftpFileSystem reader, SftpFileSystem writer) {
+      this.reader = reader;
+      this.writer = writer;
+    }
+
+    private void disconnect() {
+      reader.disconnect();
+      writer.disconnect();
+    }
+  }
 }
@@ -6,14 +6,30 @@
  */
 package org.mule.extension.sftp.internal.command;
 
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.CompletableFuture.allOf;
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.extension.file.common.api.FileAttributes;
 import org.mule.extension.file.common.api.command.DeleteCommand;
+import org.mule.extension.sftp.api.SftpFileAttributes;
+import org.mule.extension.sftp.internal.connection.ForkedClientPool;
 import org.mule.extension.sftp.internal.connection.SftpClient;
 import org.mule.extension.sftp.internal.connection.SftpFileSystem;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 
@@ -25,6 +41,7 @@ import org.slf4j.Logger;
 public final class SftpDeleteCommand extends SftpCommand implements DeleteCommand {
 
   private static final Logger LOGGER = getLogger(SftpDeleteCommand.class);
+  private static final int FILE_DELETION_BATCH_SIZE = 64;
 
   /**
    * {@inheritDoc}
@@ -42,7 +59,9 @@ public final class SftpDeleteCommand extends SftpCommand implements DeleteComman
     final boolean isDirectory = fileAttributes.isDirectory();
     final String path = fileAttributes.getPath();
 
-    if (isDirectory) {
+    if (isDirectory && client.getParallelChannels() > 1) {
+      deleteDirectoryInParallel(path);
+    } else if (isDirectory) {
       deleteDirectory(path);
     } else {
       deleteFile(path);
@@ -72,14 +91,138 @@ public final class SftpDeleteCommand extends SftpCommand implements DeleteComman
       }
     }
 
+    path = stripVirtualDirectory(path);
+    client.deleteDirectory(path);
+
+    logDelete(path);
+  }
+
+  private String stripVirtualDirectory(String path) {
     Path directoryPath = Paths.get(path);
     Path directoryFragment = directoryPath.getName(directoryPath.getNameCount() - 1);
     if (isVirtualDirectory(directoryFragment.getFileName().toString())) {
-      path = Paths.get("/").resolve(directoryPath.subpath(0, directoryPath.getNameCount() - 1)).toString();
+      return Paths.get("/").resolve(directoryPath.subpath(0, directoryPath.getNameCount() - 1)).toString();
     }
-    client.deleteDirectory(path);
+    return path;
+  }
 
-    logDelete(path);
+  private void deleteDirectoryInParallel(String path) {
+    LOGGER.debug("Preparing to delete directory '{}' over {} channels", path, client.getParallelChannels());
+    ExecutorService executor = newFixedThreadPool(client.getParallelChannels(), new ThreadFactoryBuilder()
+        .setNameFormat("sftp-recursive-delete-%d").setDaemon(true).build());
+    try (ForkedClientPool channels = new ForkedClientPool(client)) {
+      ParallelDelete parallelDelete = new ParallelDelete(executor, channels);
+      CompletableFuture<Void> deletion = parallelDelete.deleteTree(stripVirtualDirectory(path));
+      try {
+        deletion.get();
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+        throw exception("Interrupted while deleting directory " + path, e);
+      } catch (ExecutionException e) {
+        if (parallelDelete.getFailure() != null) {
+          throw parallelDelete.getFailure();
+        }
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw exception("Found exception deleting directory " + path, e);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Deletes a directory tree over several channels. Each directory is listed by one task, its files are deleted in batches
+   * by other tasks and its subdirectories are processed concurrently. A directory is removed once everything under it
+   * was deleted. No new deletions are started after any of them fails, and the first failure is the one reported, rather
+   * than the ones of the deletions which were aborted because of it.
+   */
+  private class ParallelDelete {
+
+    private final ExecutorService executor;
+    private final ForkedClientPool channels;
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    private ParallelDelete(ExecutorService executor, ForkedClientPool channels) {
+      this.executor = executor;
+      this.channels = channels;
+    }
+
+    /**
+     * @return the first failure found by any deletion, or {@code null} if none failed
+     */
+    private RuntimeException getFailure() {
+      return failure.get();
+    }
+
+    private CompletableFuture<Void> deleteTree(String path) {
+      return supplyAsync(() -> withChannel(channel -> channel.list(path)), executor)
+          .thenCompose(this::deleteEntries)
+          .thenRunAsync(() -> withChannel(channel -> {
+            channel.deleteDirectory(path);
+            logDelete(path);
+            return null;
+          }), executor);
+    }
+
+    private CompletableFuture<Void> deleteEntries(List<SftpFileAttributes> entries) {
+      List<CompletableFuture<Void>> deletions = new ArrayList<>();
+      List<String> files = new ArrayList<>(FILE_DELETION_BATCH_SIZE);
+      for (SftpFileAttributes file : entries) {
+        if (isVirtualDirectory(file.getName())) {
+          continue;
+        }
+
+        if (file.isDirectory()) {
+          deletions.add(deleteTree(file.getPath()));
+        } else {
+          files.add(file.getPath());
+          if (files.size() == FILE_DELETION_BATCH_SIZE) {
+            deletions.add(deleteFiles(files));
+            files = new ArrayList<>(FILE_DELETION_BATCH_SIZE);
+          }
+        }
+      }
+
+      if (!files.isEmpty()) {
+        deletions.add(deleteFiles(files));
+      }
+
+      return allOf(deletions.toArray(new CompletableFuture[deletions.size()]));
+    }
+
+    private CompletableFuture<Void> deleteFiles(List<String> files) {
+      return runAsync(() -> withChannel(channel -> {
+        for (String file : files) {
+          if (failure.get() != null) {
+            break;
+          }
+          fileSystem.verifyNotLocked(Paths.get(file));
+          channel.deleteFile(file);
+          logDelete(file);
+        }
+        return null;
+      }), executor);
+    }
+
+    private <T> T withChannel(Function<SftpClient, T> operation) {
+      if (failure.get() != null) {
+        throw new IllegalStateException("Deletion was aborted since another deletion failed");
+      }
+
+      try {
+        SftpClient channel = channels.acquire();
+        try {
+          return operation.apply(channel);
+        } finally {
+          channels.release(channel);
+        }
+      } catch (RuntimeException e) {
+        failure.compareAndSet(null, e);
+        throw e;
+      }
+    }
   }
 
   private void logDelete(String path) {
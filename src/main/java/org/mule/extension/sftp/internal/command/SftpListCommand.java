@@ -10,7 +10,10 @@ import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.extension.file.common.api.FileAttributes;
 import org.mule.extension.file.common.api.FileConnectorConfig;
 import org.mule.extension.file.common.api.command.ListCommand;
+import org.mule.extension.file.common.api.lock.NullPathLock;
 import org.mule.extension.sftp.api.SftpFileAttributes;
+import org.mule.extension.sftp.internal.SftpConnector;
+import org.mule.extension.sftp.internal.SftpInputStream;
 import org.mule.extension.sftp.internal.connection.SftpClient;
 import org.mule.extension.sftp.internal.connection.SftpFileSystem;
 import org.mule.runtime.extension.api.runtime.operation.Result;
@@ -18,8 +21,10 @@ import org.mule.runtime.extension.api.runtime.operation.Result;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import org.slf4j.Logger;
@@ -56,33 +61,84 @@ public final class SftpListCommand extends SftpCommand implements ListCommand {
       throw cannotListFileException(path);
     }
 
-    List<Result<InputStream, FileAttributes>> accumulator = new LinkedList<>();
-    doList(config, directoryAttributes.getPath(), accumulator, recursive, matcher);
+    List<Result<InputStream, FileAttributes>> accumulator = new ArrayList<>();
+    if (recursive && client.getParallelChannels() > 1) {
+      parallelList(config, directoryAttributes.getPath(), accumulator, matcher);
+    } else {
+      doList(config, directoryAttributes.getPath(), accumulator, recursive, matcher, new HashSet<>());
+    }
 
     return accumulator;
   }
 
+  private void parallelList(FileConnectorConfig config,
+                            String path,
+                            List<Result<InputStream, FileAttributes>> accumulator,
+                            Predicate<FileAttributes> matcher) {
+
+    LOGGER.debug("Listing directory tree {} over {} channels", path, client.getParallelChannels());
+    ParallelDirectoryWalker walker = new ParallelDirectoryWalker(client, client.getParallelChannels(),
+                                                                 file -> !isVirtualDirectory(file.getName())
+                                                                     && matcher.test(file));
+    for (SftpFileAttributes file : walker.walk(path)) {
+      if (file.isDirectory()) {
+        accumulator.add(Result.<InputStream, FileAttributes>builder().output(null).attributes(file).build());
+      } else {
+        accumulator.add(read(config, file));
+      }
+    }
+  }
+
+  /**
+   * Symbolic links are resolved before the matcher is applied, so links to directories are descended into. Each linked
+   * directory is only descended into once, which keeps links pointing to their own ancestors from causing an endless
+   * recursion.
+   */
   private void doList(FileConnectorConfig config,
                       String path,
                       List<Result<InputStream, FileAttributes>> accumulator,
                       boolean recursive,
-                      Predicate<FileAttributes> matcher) {
+                      Predicate<FileAttributes> matcher,
+                      Set<String> linkedDirectories) {
 
     LOGGER.debug("Listing directory {}", path);
-    for (SftpFileAttributes file : client.list(path)) {
-      if (isVirtualDirectory(file.getName()) || !matcher.test(file)) {
-        continue;
+    List<SftpFileAttributes> matches = new ArrayList<>();
+    client.list(path, file -> {
+      if (!isVirtualDirectory(file.getName()) && (file.isSymbolicLink() || matcher.test(file))) {
+        matches.add(file);
+      }
+    });
+
+    for (SftpFileAttributes entry : matches) {
+      SftpFileAttributes file = entry;
+      if (entry.isSymbolicLink()) {
+        file = client.followLink(entry);
+        if (!matcher.test(file)) {
+          continue;
+        }
       }
 
       if (file.isDirectory()) {
         accumulator.add(Result.<InputStream, FileAttributes>builder().output(null).attributes(file).build());
 
-        if (recursive) {
-          doList(config, file.getPath(), accumulator, recursive, matcher);
+        if (recursive && (!entry.isSymbolicLink() || linkedDirectories.add(client.getRealPath(file.getPath())))) {
+          doList(config, file.getPath(), accumulator, recursive, matcher, linkedDirectories);
         }
       } else {
-        accumulator.add(fileSystem.read(config, file.getPath(), false));
+        accumulator.add(read(config, file));
       }
     }
   }
+
+  /**
+   * Builds a {@link Result} out of the attributes obtained while listing, so that the file doesn't need to be fetched again.
+   * A connection is only obtained if the content is actually read.
+   */
+  private Result<InputStream, FileAttributes> read(FileConnectorConfig config, SftpFileAttributes file) {
+    fileSystem.verifyNotLocked(Paths.get(file.getPath()));
+    InputStream payload = SftpInputStream.newLazyInstance((SftpConnector) config, file, new NullPathLock());
+
+    return Result.<InputStream, FileAttributes>builder().output(payload).mediaType(fileSystem.getFileMessageMediaType(file))
+        .attributes(file).build();
+  }
 }
@@ -16,10 +16,8 @@ import org.mule.extension.sftp.internal.connection.SftpClient;
 import org.mule.extension.sftp.internal.connection.SftpFileSystem;
 
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.file.Path;
 
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 
 /**
@@ -58,19 +56,11 @@ public final class SftpWriteCommand extends SftpCommand implements WriteCommand
       }
     }
 
-    try (OutputStream outputStream = getOutputStream(path, mode)) {
-      IOUtils.copy(content, outputStream);
+    try {
+      client.write(path.toString(), content, mode);
       LOGGER.debug("Successfully wrote to path {}", path.toString());
     } catch (Exception e) {
       throw exception(format("Exception was found writing to file '%s'", path), e);
     }
   }
-
-  private OutputStream getOutputStream(Path path, FileWriteMode mode) {
-    try {
-      return client.getOutputStream(path.toString(), mode);
-    } catch (Exception e) {
-      throw exception(format("Could not open stream to write to path '%s' using mode '%s'", path, mode), e);
-    }
-  }
 }
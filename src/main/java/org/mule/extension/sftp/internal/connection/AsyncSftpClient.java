@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.connection;
+
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import org.mule.extension.sftp.api.SftpFileAttributes;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Non blocking facade over a {@link SftpClient}. Each operation is dispatched to one of up to {@code parallelism} SFTP
+ * channels opened over the session of the wrapped client, and its outcome is delivered through a
+ * {@link CompletableFuture}, so that many operations can be outstanding over a single connection at the same time.
+ * <p>
+ * Operations are executed on channels other than the one of the wrapped client, whose working directory is the user's
+ * home. Hence, paths are expected to be absolute.
+ *
+ * @since 1.0
+ */
+public final class AsyncSftpClient implements AutoCloseable {
+
+  private final ForkedClientPool channels;
+  private final ExecutorService executor;
+  private final Set<CompletableFuture<?>> pendingFutures = newKeySet();
+
+  /**
+   * Creates a new instance
+   *
+   * @param client      the {@link SftpClient} which channels are forked from
+   * @param parallelism the maximum amount of channels to use concurrently
+   */
+  public AsyncSftpClient(SftpClient client, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be greater than zero");
+    }
+
+    channels = new ForkedClientPool(client);
+    executor = newFixedThreadPool(parallelism,
+                                  new ThreadFactoryBuilder().setNameFormat("sftp-async-client-%d").setDaemon(true).build());
+  }
+
+  /**
+   * @see SftpClient#getAttributes(Path)
+   */
+  public CompletableFuture<SftpFileAttributes> getAttributes(Path path) {
+    return submit(channel -> channel.getAttributes(path));
+  }
+
+  /**
+   * @see SftpClient#list(String)
+   */
+  public CompletableFuture<List<SftpFileAttributes>> list(String path) {
+    return submit(channel -> channel.list(path));
+  }
+
+  /**
+   * @see SftpClient#rename(String, String)
+   */
+  public CompletableFuture<Void> rename(String sourcePath, String target) {
+    return submit(channel -> {
+      channel.rename(sourcePath, target);
+      return null;
+    });
+  }
+
+  /**
+   * @see SftpClient#mkdir(String)
+   */
+  public CompletableFuture<Void> mkdir(String directoryName) {
+    return submit(channel -> {
+      channel.mkdir(directoryName);
+      return null;
+    });
+  }
+
+  /**
+   * @see SftpClient#deleteFile(String)
+   */
+  public CompletableFuture<Void> deleteFile(String path) {
+    return submit(channel -> {
+      channel.deleteFile(path);
+      return null;
+    });
+  }
+
+  /**
+   * @see SftpClient#deleteDirectory(String)
+   */
+  public CompletableFuture<Void> deleteDirectory(String path) {
+    return submit(channel -> {
+      channel.deleteDirectory(path);
+      return null;
+    });
+  }
+
+  /**
+   * Executes an arbitrary {@code operation} on one of the channels
+   *
+   * @param operation the {@link ChannelOperation} to execute
+   * @param <T>       the operation's return type
+   * @return a {@link CompletableFuture} completed with the outcome of the operation
+   */
+  public <T> CompletableFuture<T> submit(ChannelOperation<T> operation) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    pendingFutures.add(future);
+    future.whenComplete((value, failure) -> pendingFutures.remove(future));
+    try {
+      executor.execute(() -> execute(operation, future));
+    } catch (Exception e) {
+      future.completeExceptionally(e);
+    }
+
+    return future;
+  }
+
+  private <T> void execute(ChannelOperation<T> operation, CompletableFuture<T> future) {
+    if (future.isDone()) {
+      return;
+    }
+
+    SftpClient channel;
+    try {
+      channel = channels.acquire();
+    } catch (Exception e) {
+      future.completeExceptionally(e);
+      return;
+    }
+
+    try {
+      future.complete(operation.execute(channel));
+    } catch (Throwable t) {
+      future.completeExceptionally(t);
+    } finally {
+      channels.release(channel);
+    }
+  }
+
+  /**
+   * Discards pending operations and closes every channel. Operations which are already executing are interrupted. The
+   * futures of every operation which didn't complete yet are completed exceptionally.
+   */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    channels.close();
+
+    for (CompletableFuture<?> future : pendingFutures) {
+      future.completeExceptionally(new MuleRuntimeException(createStaticMessage("Operation was discarded since the client "
+          + "was closed")));
+    }
+  }
+
+  /**
+   * An operation to be executed on a {@link SftpClient} which owns a dedicated channel
+   *
+   * @param <T> the operation's return type
+   */
+  @FunctionalInterface
+  public interface ChannelOperation<T> {
+
+    T execute(SftpClient channel) throws Exception;
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.connection;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+
+import com.jcraft.jsch.JSchException;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A thread safe pool of clients {@link SftpClient#fork() forked} from a given {@link SftpClient}. Each of them owns an SFTP
+ * channel over the SSH session of the original client, so they can be used concurrently without going through the
+ * connection pool.
+ * <p>
+ * Clients are forked lazily, the first time no idle one is available. It's up to the caller to bound the amount of clients
+ * that are concurrently acquired.
+ *
+ * @since 1.0
+ */
+public final class ForkedClientPool implements AutoCloseable {
+
+  private final SftpClient client;
+  private final Queue<SftpClient> idleClients = new ConcurrentLinkedQueue<>();
+  private final List<SftpClient> forkedClients = new CopyOnWriteArrayList<>();
+  private volatile boolean closed = false;
+
+  /**
+   * Creates a new instance
+   *
+   * @param client the {@link SftpClient} which owns the session
+   */
+  public ForkedClientPool(SftpClient client) {
+    this.client = client;
+  }
+
+  /**
+   * Obtains an idle client, forking a new one if none is available. The returned client <b>MUST</b> be handed back through
+   * {@link #release(SftpClient)}
+   *
+   * @return a connected {@link SftpClient}
+   * @throws MuleRuntimeException if a new channel could not be opened or the pool is already closed
+   */
+  public SftpClient acquire() {
+    SftpClient forkedClient = idleClients.poll();
+    if (forkedClient != null) {
+      return forkedClient;
+    }
+
+    try {
+      forkedClient = client.fork();
+    } catch (JSchException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not open an additional SFTP channel to " + client.getHost()), e);
+    }
+
+    forkedClients.add(forkedClient);
+    if (closed) {
+      forkedClient.disconnect();
+      throw new MuleRuntimeException(createStaticMessage("Could not open an additional SFTP channel since the pool was closed"));
+    }
+
+    return forkedClient;
+  }
+
+  /**
+   * Returns a client previously obtained through {@link #acquire()}
+   *
+   * @param forkedClient the client to return
+   */
+  public void release(SftpClient forkedClient) {
+    if (closed || !forkedClient.isConnected()) {
+      forkedClient.disconnect();
+    } else {
+      idleClients.add(forkedClient);
+    }
+  }
+
+  /**
+   * Closes the channels of every client forked by this pool, including the ones which are still acquired
+   */
+  @Override
+  public void close() {
+    closed = true;
+    forkedClients.forEach(SftpClient::disconnect);
+    idleClients.clear();
+  }
+}
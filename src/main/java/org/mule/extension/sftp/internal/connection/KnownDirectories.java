@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.connection;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A bounded, thread safe set of absolute paths of directories which are known to exist on a server. It's meant to be
+ * shared among all the {@link SftpClient clients} which connect to the same server with the same user, so that
+ * directories which were already created or found don't need to be checked again.
+ * <p>
+ * The least recently used entries are evicted first once there are more than {@code maxEntries}.
+ *
+ * @since 1.0
+ */
+public final class KnownDirectories {
+
+  private static final String ROOT = "/";
+
+  private final Cache<String, Boolean> directories;
+
+  /**
+   * Creates a new instance
+   *
+   * @param maxEntries the maximum amount of directories to remember
+   */
+  public KnownDirectories(int maxEntries) {
+    directories = CacheBuilder.newBuilder().maximumSize(maxEntries).build();
+  }
+
+  /**
+   * @param path an absolute and normalized path
+   * @return whether the given {@code path} is known to be a directory
+   */
+  public boolean contains(String path) {
+    return ROOT.equals(path) || directories.getIfPresent(path) != null;
+  }
+
+  /**
+   * Remembers that the given {@code path} is a directory
+   *
+   * @param path an absolute and normalized path
+   */
+  public void add(String path) {
+    directories.put(path, true);
+  }
+
+  /**
+   * Forgets the given {@code path} and every directory under it
+   *
+   * @param path an absolute and normalized path
+   */
+  public void remove(String path) {
+    String descendantsPrefix = path.endsWith(ROOT) ? path : path + ROOT;
+    directories.asMap().keySet().removeIf(directory -> directory.equals(path) || directory.startsWith(descendantsPrefix));
+  }
+}
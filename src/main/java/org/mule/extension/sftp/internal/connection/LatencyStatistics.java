@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.connection;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe accumulator of the durations of a given kind of event
+ *
+ * @since 1.0
+ */
+public final class LatencyStatistics {
+
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  /**
+   * Records the duration of a single event
+   *
+   * @param nanos the duration in nanoseconds
+   */
+  public void record(long nanos) {
+    count.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulateAndGet(nanos, Math::max);
+  }
+
+  /**
+   * @return the amount of recorded events
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * @param unit the unit in which the result is expressed
+   * @return the average duration of the recorded events, or {@code 0} if none was recorded
+   */
+  public long getAverage(TimeUnit unit) {
+    long events = count.sum();
+    return events == 0 ? 0 : unit.convert(totalNanos.sum() / events, NANOSECONDS);
+  }
+
+  /**
+   * @param unit the unit in which the result is expressed
+   * @return the longest duration among the recorded events
+   */
+  public long getMax(TimeUnit unit) {
+    return unit.convert(maxNanos.get(), NANOSECONDS);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("count=%d, avg=%dms, max=%dms", getCount(), getAverage(TimeUnit.MILLISECONDS),
+                         getMax(TimeUnit.MILLISECONDS));
+  }
+}
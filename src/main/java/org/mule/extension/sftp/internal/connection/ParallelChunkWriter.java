@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.connection;
+
+import static java.lang.String.format;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.mule.extension.file.common.api.FileWriteMode.OVERWRITE;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Uploads a stream by spooling it in fixed size chunks which are written at explicit offsets over several SFTP channels of
+ * the same SSH session.
+ * <p>
+ * Chunks are processed in windows of up to twice as many chunks as channels. Writes which resume an existing file are
+ * positioned relative to the remote size, so the furthest chunk of each window is written first and the rest of them are
+ * then written concurrently, while the remote size is known not to change.
+ * <p>
+ * JSch finds the remote size through a stat whose failure it ignores, in which case a chunk would land at the wrong
+ * offset. Such a chunk either shortens or grows the file past the end of its window, so the size of the file is checked
+ * after each window and the write fails if it isn't the expected one.
+ *
+ * @since 1.0
+ */
+final class ParallelChunkWriter {
+
+  private final SftpClient client;
+  private final String path;
+  private final int parallelism;
+  private final int chunkSize;
+  private final int windowSize;
+
+  /**
+   * Creates a new instance
+   *
+   * @param client      the {@link SftpClient} which channels are forked from
+   * @param path        the path of the file to write
+   * @param parallelism the amount of channels to use
+   * @param chunkSize   the size of each chunk
+   */
+  ParallelChunkWriter(SftpClient client, String path, int parallelism, int chunkSize) {
+    this.client = client;
+    this.path = path;
+    this.parallelism = parallelism;
+    this.chunkSize = chunkSize;
+    windowSize = parallelism * 2;
+  }
+
+  /**
+   * Truncates the target file and writes the given content into it
+   *
+   * @param firstChunk the first chunk of the content, which has already been consumed from {@code content}
+   * @param content    the rest of the content
+   * @throws IOException if the content could not be read or any of the chunks could not be written
+   */
+  void write(byte[] firstChunk, InputStream content) throws IOException {
+    ExecutorService executor = newFixedThreadPool(parallelism,
+                                                  new ThreadFactoryBuilder().setNameFormat("sftp-chunked-write-%d")
+                                                      .setDaemon(true).build());
+    try (ForkedClientPool channels = new ForkedClientPool(client)) {
+      truncate();
+
+      List<Chunk> window = new ArrayList<>(windowSize);
+      window.add(new Chunk(0, firstChunk, firstChunk.length));
+      long offset = firstChunk.length;
+      long remoteSize = 0;
+      boolean endOfContent = false;
+
+      do {
+        while (!endOfContent && window.size() < windowSize) {
+          byte[] data = new byte[chunkSize];
+          int read = IOUtils.read(content, data);
+          if (read > 0) {
+            window.add(new Chunk(offset, data, read));
+            offset += read;
+          }
+          endOfContent = read < chunkSize;
+        }
+
+        remoteSize = flush(window, remoteSize, executor, channels);
+        window.clear();
+      } while (!endOfContent);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void truncate() throws IOException {
+    try {
+      client.getOutputStream(path, OVERWRITE).close();
+    } catch (IOException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException(format("Could not open file '%s' for writing", path), e);
+    }
+  }
+
+  private long flush(List<Chunk> window, long remoteSize, ExecutorService executor, ForkedClientPool channels)
+      throws IOException {
+    if (window.isEmpty()) {
+      return remoteSize;
+    }
+
+    Chunk furthest = window.get(window.size() - 1);
+    writeChunk(client, furthest, remoteSize);
+    final long windowEnd = furthest.offset + furthest.length;
+
+    List<Future<?>> writes = new ArrayList<>(window.size() - 1);
+    for (Chunk chunk : window.subList(0, window.size() - 1)) {
+      writes.add(executor.submit(() -> {
+        SftpClient channel = channels.acquire();
+        try {
+          writeChunk(channel, chunk, windowEnd);
+        } finally {
+          channels.release(channel);
+        }
+        return null;
+      }));
+    }
+
+    try {
+      for (Future<?> write : writes) {
+        await(write);
+      }
+    } finally {
+      writes.forEach(write -> write.cancel(true));
+    }
+
+    verifySize(windowEnd);
+    return windowEnd;
+  }
+
+  private void verifySize(long expectedSize) throws IOException {
+    long size;
+    try {
+      size = client.getRemoteSize(path);
+    } catch (RuntimeException e) {
+      throw new IOException(format("Could not verify the size of file '%s'", path), e);
+    }
+
+    if (size != expectedSize) {
+      throw new IOException(format("File '%s' is %d bytes long after writing its chunks, while %d bytes were expected", path,
+                                   size, expectedSize));
+    }
+  }
+
+  private void writeChunk(SftpClient channel, Chunk chunk, long remoteSize) throws IOException {
+    try (OutputStream outputStream = channel.getOutputStream(path, chunk.offset, remoteSize)) {
+      outputStream.write(chunk.data, 0, chunk.length);
+    } catch (Exception e) {
+      throw new IOException(format("Could not write %d bytes at offset %d of file '%s'", chunk.length, chunk.offset, path), e);
+    }
+  }
+
+  private void await(Future<?> write) throws IOException {
+    try {
+      write.get();
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      throw new InterruptedIOException(format("Interrupted while writing file '%s'", path));
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException(format("Exception was found writing a chunk of file '%s'", path), cause);
+    }
+  }
+
+  private static class Chunk {
+
+    private final long offset;
+    private final byte[] data;
+    private final int length;
+
+    private Chunk(long offset, byte[] data, int length) {
+      this.offset = offset;
+      this.data = data;
+      this.length = length;
+    }
+  }
+}
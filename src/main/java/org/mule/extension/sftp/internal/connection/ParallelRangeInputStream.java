@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.connection;
+
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.lang.Thread.currentThread;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * An {@link InputStream} which downloads a file by splitting it in fixed size chunks that are fetched concurrently over
+ * several SFTP channels of the same SSH session.
+ * <p>
+ * Chunks are handed to the consumer in order. No more than one chunk per channel is fetched ahead of the one being
+ * consumed, so memory usage is bounded by the amount of channels plus one times the chunk size. The read-ahead of the
+ * channel which fetches each chunk is capped to the requests the chunk needs, and chunks are fetched on the
+ * {@link SftpClient#getRangedReadExecutor() executor} shared by the client.
+ *
+ * @since 1.0
+ */
+final class ParallelRangeInputStream extends InputStream {
+
+  private final String path;
+  private final long size;
+  private final int chunkSize;
+  private final int chunkCount;
+  private final ExecutorService executor;
+  private final ForkedClientPool channels;
+  private final Deque<Future<byte[]>> pendingChunks = new ArrayDeque<>();
+
+  private int nextChunk = 0;
+  private byte[] currentChunk;
+  private int position = 0;
+  private volatile boolean closed = false;
+
+  /**
+   * Creates a new instance and starts fetching the first chunks
+   *
+   * @param client      the {@link SftpClient} which channels are forked from
+   * @param path        the path of the file to read
+   * @param size        the size of the file
+   * @param parallelism the amount of channels to use
+   * @param chunkSize   the size of each chunk
+   */
+  ParallelRangeInputStream(SftpClient client, String path, long size, int parallelism, int chunkSize) {
+    this.path = path;
+    this.size = size;
+    this.chunkSize = chunkSize;
+    chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+    executor = client.getRangedReadExecutor();
+    channels = new ForkedClientPool(client);
+
+    for (int i = 0; i < parallelism && nextChunk < chunkCount; i++) {
+      scheduleNextChunk();
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] buffer = new byte[1];
+    return read(buffer, 0, 1) == -1 ? -1 : buffer[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int length) throws IOException {
+    if (closed) {
+      throw new IOException(format("Stream for file '%s' is already closed", path));
+    }
+
+    if (length == 0) {
+      return 0;
+    }
+
+    if (!advance()) {
+      return -1;
+    }
+
+    int count = min(length, currentChunk.length - position);
+    System.arraycopy(currentChunk, position, buffer, offset, count);
+    position += count;
+
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return currentChunk == null ? 0 : currentChunk.length - position;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+
+    closed = true;
+    pendingChunks.forEach(chunk -> chunk.cancel(true));
+    pendingChunks.clear();
+    channels.close();
+  }
+
+  private boolean advance() throws IOException {
+    while (currentChunk == null || position == currentChunk.length) {
+      Future<byte[]> next = pendingChunks.poll();
+      if (next == null) {
+        return false;
+      }
+
+      currentChunk = await(next);
+      position = 0;
+
+      if (nextChunk < chunkCount) {
+        scheduleNextChunk();
+      }
+    }
+
+    return true;
+  }
+
+  private void scheduleNextChunk() {
+    final long offset = (long) nextChunk * chunkSize;
+    final int length = (int) min(chunkSize, size - offset);
+    pendingChunks.add(executor.submit(() -> fetch(offset, length)));
+    nextChunk++;
+  }
+
+  private byte[] fetch(long offset, int length) throws IOException {
+    SftpClient channel = channels.acquire();
+    try (InputStream content = channel.getFileContent(path, offset, length)) {
+      byte[] chunk = new byte[length];
+      int read = IOUtils.read(content, chunk);
+      if (read < length) {
+        throw new IOException(format("File '%s' ended at offset %d while it was expected to be %d bytes long", path,
+                                     offset + read, size));
+      }
+
+      return chunk;
+    } finally {
+      channels.release(channel);
+    }
+  }
+
+  private byte[] await(Future<byte[]> chunk) throws IOException {
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      throw new InterruptedIOException(format("Interrupted while waiting for a chunk of file '%s'", path));
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new IOException(format("Exception was found reading a chunk of file '%s'", path), cause);
+    }
+  }
+}
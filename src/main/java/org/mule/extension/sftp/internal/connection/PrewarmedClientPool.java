@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.connection;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import org.mule.runtime.api.connection.ConnectionException;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a minimum amount of idle, already authenticated {@link SftpClient clients} so that new connections don't need to
+ * wait for a full handshake.
+ * <p>
+ * Clients are established by a single background thread when the pool is {@link #start() started} and every time one of
+ * them is {@link #take() taken} or a connection is evicted, until the pool is topped up again. Failures to establish a
+ * client are logged and retried on the next replenishment.
+ *
+ * @since 1.0
+ */
+final class PrewarmedClientPool {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PrewarmedClientPool.class);
+
+  private final int minIdle;
+  private final ClientFactory clientFactory;
+  private final BlockingQueue<SftpClient> idleClients = new LinkedBlockingQueue<>();
+  private final AtomicInteger pending = new AtomicInteger(0);
+  private ExecutorService replenisher;
+  private volatile boolean started = false;
+
+  /**
+   * Creates a new instance
+   *
+   * @param minIdle       the amount of idle clients to keep
+   * @param clientFactory the {@link ClientFactory} used to establish new clients
+   */
+  PrewarmedClientPool(int minIdle, ClientFactory clientFactory) {
+    this.minIdle = minIdle;
+    this.clientFactory = clientFactory;
+  }
+
+  /**
+   * Starts establishing the idle clients in the background
+   */
+  synchronized void start() {
+    if (started) {
+      return;
+    }
+
+    replenisher = newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("sftp-connection-replenisher-%d")
+        .setDaemon(true).build());
+    started = true;
+    replenish();
+  }
+
+  /**
+   * Stops the replenishment and disconnects every idle client
+   */
+  synchronized void stop() {
+    if (!started) {
+      return;
+    }
+
+    started = false;
+    replenisher.shutdownNow();
+    drain();
+  }
+
+  /**
+   * Takes an idle client and triggers a replenishment
+   *
+   * @return a connected {@link SftpClient} or {@code null} if none is available
+   */
+  SftpClient take() {
+    SftpClient client;
+    while ((client = idleClients.poll()) != null && !client.isConnected()) {
+      client.disconnect();
+    }
+
+    replenish();
+    return client;
+  }
+
+  /**
+   * Schedules as many new clients as needed to get back to the minimum amount of idle ones
+   */
+  void replenish() {
+    if (!started) {
+      return;
+    }
+
+    int scheduled;
+    while ((scheduled = pending.get()) + idleClients.size() < minIdle) {
+      if (!pending.compareAndSet(scheduled, scheduled + 1)) {
+        continue;
+      }
+
+      try {
+        replenisher.execute(this::establish);
+      } catch (RejectedExecutionException e) {
+        pending.decrementAndGet();
+        return;
+      }
+    }
+  }
+
+  private void establish() {
+    try {
+      SftpClient client = clientFactory.create();
+      idleClients.add(client);
+      if (!started) {
+        drain();
+      }
+    } catch (Exception e) {
+      LOGGER.warn("Could not establish an idle SFTP connection: " + e.getMessage(), e);
+    } finally {
+      pending.decrementAndGet();
+    }
+  }
+
+  private void drain() {
+    SftpClient client;
+    while ((client = idleClients.poll()) != null) {
+      client.disconnect();
+    }
+  }
+
+  /**
+   * Establishes new connected and authenticated clients
+   */
+  @FunctionalInterface
+  interface ClientFactory {
+
+    SftpClient create() throws ConnectionException;
+  }
+}
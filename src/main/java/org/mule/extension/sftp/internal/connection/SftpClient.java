@@ -6,24 +6,51 @@
  */
 package org.mule.extension.sftp.internal.connection;
 
+import static com.jcraft.jsch.ChannelSftp.LsEntrySelector.CONTINUE;
+import static com.jcraft.jsch.ChannelSftp.SSH_FX_FAILURE;
 import static com.jcraft.jsch.ChannelSftp.SSH_FX_NO_SUCH_FILE;
+import static com.jcraft.jsch.ChannelSftp.SSH_FX_OP_UNSUPPORTED;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.String.format;
-import static org.apache.commons.collections.CollectionUtils.isEmpty;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.extension.sftp.internal.SftpUtils.normalizePath;
 import static org.mule.extension.sftp.internal.SftpUtils.resolvePath;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.CLOSE;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.MKDIR;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.OPEN;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.OPENDIR;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.READ;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.READDIR;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.REALPATH;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.REMOVE;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.RENAME;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.RMDIR;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.STAT;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.WRITE;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.dataRequests;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.readdirRequests;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
-import static org.mule.runtime.api.util.collection.Collectors.toImmutableList;
 import static org.mule.runtime.core.api.util.StringUtils.isEmpty;
+import org.mule.extension.file.common.api.FileAttributes;
 import org.mule.extension.file.common.api.FileWriteMode;
 import org.mule.extension.file.common.api.exceptions.FileError;
 import org.mule.extension.sftp.api.SftpConnectionException;
 import org.mule.extension.sftp.api.SftpFileAttributes;
+import org.mule.extension.sftp.internal.metrics.SftpMetrics;
+import org.mule.extension.sftp.internal.metrics.SftpRequestType;
+import org.mule.extension.sftp.internal.metrics.SftpTrace;
 import org.mule.extension.sftp.random.alg.PRNGAlgorithm;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 
 import com.google.common.base.Supplier;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.jcraft.jsch.Channel;
 import com.jcraft.jsch.ChannelSftp;
 import com.jcraft.jsch.JSch;
@@ -33,7 +60,9 @@ import com.jcraft.jsch.ProxyHTTP;
 import com.jcraft.jsch.ProxySOCKS4;
 import com.jcraft.jsch.ProxySOCKS5;
 import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpATTRS;
 import com.jcraft.jsch.SftpException;
+import com.jcraft.jsch.SftpProgressMonitor;
 
 import java.io.File;
 import java.io.IOException;
@@ -43,7 +72,15 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.apache.commons.io.output.ProxyOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +96,13 @@ public class SftpClient {
   public static final String CHANNEL_SFTP = "sftp";
   public static final String STRICT_HOST_KEY_CHECKING = "StrictHostKeyChecking";
   public static final String PREFERRED_AUTHENTICATION_METHODS = "PreferredAuthentications";
+  public static final int DEFAULT_BULK_REQUESTS = 16;
+  public static final long DEFAULT_PARALLEL_TRANSFER_THRESHOLD = 64 * 1024 * 1024;
+  public static final int DEFAULT_PARALLEL_CHUNK_SIZE = 8 * 1024 * 1024;
+  private static final int WRITE_SPOOL_INITIAL_SIZE = 64 * 1024;
+  public static final int DEFAULT_ATTRIBUTES_CACHE_MAX_ENTRIES = 1000;
+  public static final String POSIX_RENAME_EXTENSION = "posix-rename@openssh.com";
+  private static final SftpRequestType[] REQUEST_TYPES = SftpRequestType.values();
 
 
   private ChannelSftp sftp;
@@ -74,6 +118,22 @@ public class SftpClient {
   private long connectionTimeoutMillis = 0; // No timeout by default
   private SftpProxyConfig proxyConfig;
   private String prngAlgorithmClassImplementation;
+  private int bulkRequests = DEFAULT_BULK_REQUESTS;
+  private int parallelChannels = 1;
+  private long parallelTransferThreshold = DEFAULT_PARALLEL_TRANSFER_THRESHOLD;
+  private int parallelChunkSize = DEFAULT_PARALLEL_CHUNK_SIZE;
+  private boolean copyOverSameSession = false;
+  private boolean forked = false;
+  private SftpClient parent;
+  private ExecutorService rangedReadExecutor;
+  private SftpSessionPool sessionPool;
+  private String workingDirectory;
+  private Cache<String, SftpFileAttributes> attributesCache;
+  private KnownDirectories knownDirectories;
+  private final LongAdder operations = new LongAdder();
+  private final LongAdder[] requests = new LongAdder[REQUEST_TYPES.length];
+  private final AtomicReference<SftpTrace> trace;
+  private SftpMetrics metrics;
 
   /**
    * Creates a new instance which connects to a server on a given {@code host} and {@code port}
@@ -87,29 +147,97 @@ public class SftpClient {
     this.port = port;
     this.prngAlgorithmClassImplementation = prngAlgorithm.getImplementationClassName();
     jsch = jSchSupplier.get();
+    trace = new AtomicReference<>();
+    initRequestCounters();
+  }
+
+  /**
+   * Creates a new instance which shares the {@link Session} of the given {@code parent}
+   *
+   * @param parent the client which owns the session
+   */
+  private SftpClient(SftpClient parent) {
+    host = parent.host;
+    port = parent.port;
+    jsch = parent.jsch;
+    session = parent.session;
+    prngAlgorithmClassImplementation = parent.prngAlgorithmClassImplementation;
+    bulkRequests = parent.bulkRequests;
+    parallelChannels = parent.parallelChannels;
+    parallelTransferThreshold = parent.parallelTransferThreshold;
+    parallelChunkSize = parent.parallelChunkSize;
+    copyOverSameSession = parent.copyOverSameSession;
+    attributesCache = parent.attributesCache;
+    knownDirectories = parent.knownDirectories;
+    metrics = parent.metrics;
+    trace = parent.trace;
+    forked = true;
+    this.parent = parent;
+    initRequestCounters();
+  }
+
+  private void initRequestCounters() {
+    for (int i = 0; i < requests.length; i++) {
+      requests[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Creates a new {@link SftpClient} which opens its own SFTP channel over the SSH session of this one, so that no new
+   * handshake nor authentication takes place.
+   * <p>
+   * Both clients can be used concurrently. Disconnecting the returned client only closes its channel, while disconnecting
+   * this client also closes the channels of every client forked from it.
+   *
+   * @return a connected {@link SftpClient}
+   * @throws JSchException if the channel could not be opened
+   */
+  public SftpClient fork() throws JSchException {
+    SftpClient fork = new SftpClient(this);
+    fork.openChannel();
+    return fork;
   }
 
   /**
    * @return the current working directory
    */
   public String getWorkingDirectory() {
-    try {
-      return sftp.pwd();
-    } catch (SftpException e) {
-      throw exception("Could not obtain current working directory", e);
+    if (workingDirectory == null) {
+      try {
+        workingDirectory = sftp.pwd();
+      } catch (SftpException e) {
+        throw exception("Could not obtain current working directory", e);
+      }
     }
+
+    return workingDirectory;
   }
 
   /**
-   * Changes the current working directory to {@code wd}
+   * Changes the current working directory to {@code wd}. Nothing is sent to the server if {@code path} is already the
+   * current working directory.
    *
    * @param path the new working directory path
    */
   public void changeWorkingDirectory(String path) {
+    String normalizedPath = normalizePath(path);
+    if (normalizedPath.equals(workingDirectory)) {
+      LOGGER.debug("Already at working directory: {}", path);
+      return;
+    }
+
     LOGGER.debug("Attempting to cwd to: {}", path);
 
     try {
-      sftp.cd(normalizePath(path));
+      operations.increment();
+      final long startTime = nanoTime();
+      try {
+        sftp.cd(normalizedPath);
+      } finally {
+        record(REALPATH, 1, nanoTime() - startTime);
+        record(STAT, 1, 0);
+      }
+      workingDirectory = sftp.pwd();
     } catch (SftpException e) {
       throw exception("Exception occurred while trying to change working directory to " + path, e);
     }
@@ -122,8 +250,24 @@ public class SftpClient {
    * @return a {@link SftpFileAttributes} or {@code null} if the file doesn't exist.
    */
   public SftpFileAttributes getAttributes(Path path) {
+    String normalizedPath = normalizePath(path.toString());
+    if (attributesCache != null) {
+      SftpFileAttributes attributes = attributesCache.getIfPresent(cacheKey(normalizedPath));
+      if (attributes != null) {
+        return attributes;
+      }
+    }
+
     try {
-      return new SftpFileAttributes(path, sftp.stat(normalizePath(path.toString())));
+      operations.increment();
+      SftpFileAttributes attributes = new SftpFileAttributes(path, stat(normalizedPath));
+      if (attributesCache != null) {
+        attributesCache.put(cacheKey(normalizedPath), attributes);
+      }
+      if (knownDirectories != null && attributes.isDirectory()) {
+        knownDirectories.add(cacheKey(normalizedPath));
+      }
+      return attributes;
     } catch (SftpException e) {
       if (e.id == SSH_FX_NO_SUCH_FILE) {
         return null;
@@ -132,6 +276,39 @@ public class SftpClient {
     }
   }
 
+  /**
+   * Entries obtained by {@link #list(String, Consumer)} describe symbolic links themselves. This method resolves them into
+   * the attributes of the files they point to, so that for example links to directories can be descended into.
+   *
+   * @param file a listed entry
+   * @return the attributes of the file the link points to, or the given {@code file} if it is not a link or its target
+   *         doesn't exist
+   */
+  public SftpFileAttributes followLink(SftpFileAttributes file) {
+    if (!file.isSymbolicLink()) {
+      return file;
+    }
+
+    SftpFileAttributes target = getAttributes(Paths.get(file.getPath()));
+    return target != null ? target : file;
+  }
+
+  /**
+   * @param path a path which may go through symbolic links
+   * @return the absolute path of the same file, without symbolic links
+   */
+  public String getRealPath(String path) {
+    final long startTime = nanoTime();
+    try {
+      operations.increment();
+      return sftp.realpath(normalizePath(path));
+    } catch (SftpException e) {
+      throw exception("Could not resolve the real path of " + path, e);
+    } finally {
+      record(REALPATH, 1, nanoTime() - startTime);
+    }
+  }
+
   /**
    * Performs a login operation for the given {@code user} using the connection options and additional credentials optionally set
    * on this client
@@ -139,7 +316,24 @@ public class SftpClient {
    * @param user the authentication user
    */
   public void login(String user) throws IOException, JSchException {
-    configureSession(user);
+    if (sessionPool == null) {
+      session = openSession(user);
+      openChannel();
+      return;
+    }
+
+    session = sessionPool.acquire(() -> openSession(user));
+    try {
+      openChannel();
+    } catch (JSchException e) {
+      sessionPool.release(session);
+      session = null;
+      throw e;
+    }
+  }
+
+  private Session openSession(String user) throws JSchException {
+    Session session = configureSession(user);
     if (!isEmpty(password)) {
       session.setPassword(password);
     }
@@ -148,7 +342,8 @@ public class SftpClient {
       setupIdentity();
     }
 
-    connect();
+    session.connect();
+    return session;
   }
 
   private void setupIdentity() throws JSchException {
@@ -165,15 +360,16 @@ public class SftpClient {
     }
   }
 
-  private void connect() throws JSchException {
-    session.connect();
+  private void openChannel() throws JSchException {
     Channel channel = session.openChannel(CHANNEL_SFTP);
     channel.connect();
 
     sftp = (ChannelSftp) channel;
+    sftp.setBulkRequests(bulkRequests);
+    workingDirectory = null;
   }
 
-  private void configureSession(String user) throws JSchException {
+  private Session configureSession(String user) throws JSchException {
     Properties hash = new Properties();
     configureHostChecking(hash);
     setRandomPrng(hash);
@@ -181,11 +377,13 @@ public class SftpClient {
       hash.put(PREFERRED_AUTHENTICATION_METHODS, preferredAuthenticationMethods);
     }
 
-    session = jsch.getSession(user, host);
+    Session session = jsch.getSession(user, host);
     session.setConfig(hash);
     session.setPort(port);
     session.setTimeout(Long.valueOf(connectionTimeoutMillis).intValue());
     configureProxy(session);
+
+    return session;
   }
 
   private void setRandomPrng(Properties hash) {
@@ -241,16 +439,31 @@ public class SftpClient {
   }
 
   /**
-   * Renames the file at {@code sourcePath} to {@code target}
+   * Renames the file at {@code sourcePath} to {@code target}. If the server supports the
+   * {@link #POSIX_RENAME_EXTENSION posix-rename} extension, an existing {@code target} is atomically replaced.
    *
    * @param sourcePath the path to the renamed file
    * @param target the new path
    */
   public void rename(String sourcePath, String target) throws IOException {
+    // the descendants of the renamed path are only invalidated if it's not known to be a file
+    boolean directory = !isCachedFile(sourcePath);
     try {
-      sftp.rename(normalizePath(sourcePath), normalizePath(target));
+      operations.increment();
+      final long startTime = nanoTime();
+      try {
+        sftp.rename(normalizePath(sourcePath), normalizePath(target));
+      } finally {
+        record(RENAME, 1, nanoTime() - startTime);
+      }
     } catch (SftpException e) {
       throw exception(format("Could not rename path '%s' to '%s'", sourcePath, target), e);
+    } finally {
+      invalidate(sourcePath, directory);
+      invalidate(target, directory);
+      if (knownDirectories != null) {
+        knownDirectories.remove(cacheKey(sourcePath));
+      }
     }
   }
 
@@ -262,14 +475,23 @@ public class SftpClient {
   public void deleteFile(String path) {
 
     try {
-      sftp.rm(normalizePath(path));
+      operations.increment();
+      final long startTime = nanoTime();
+      try {
+        sftp.rm(normalizePath(path));
+      } finally {
+        record(REMOVE, 1, nanoTime() - startTime);
+      }
     } catch (SftpException e) {
       throw exception("Could not delete file " + path, e);
+    } finally {
+      invalidate(path);
     }
   }
 
   /**
-   * Closes the active session and severs the connection (if any of those were active)
+   * Closes the active session and severs the connection (if any of those were active). If the session is leased from a
+   * {@link SftpSessionPool}, only the channel is closed and the lease is returned.
    */
   public void disconnect() {
     if (sftp != null && sftp.isConnected()) {
@@ -277,11 +499,50 @@ public class SftpClient {
       sftp.disconnect();
     }
 
-    if (session != null && session.isConnected()) {
+    if (forked) {
+      return;
+    }
+
+    shutdownRangedReadExecutor();
+
+    if (session == null) {
+      return;
+    }
+
+    if (sessionPool != null) {
+      sessionPool.release(session);
+      session = null;
+    } else if (session.isConnected()) {
       session.disconnect();
     }
   }
 
+  /**
+   * Returns the {@link ExecutorService} on which the chunks of {@link ParallelRangeInputStream parallel reads} are fetched.
+   * It's created the first time it's needed and shared by every stream opened through this client or its forks, until
+   * this client is disconnected.
+   *
+   * @return an {@link ExecutorService} with up to {@link #setParallelChannels(int) parallelChannels} threads
+   */
+  synchronized ExecutorService getRangedReadExecutor() {
+    if (parent != null) {
+      return parent.getRangedReadExecutor();
+    }
+
+    if (rangedReadExecutor == null) {
+      rangedReadExecutor = newFixedThreadPool(parallelChannels, new ThreadFactoryBuilder()
+          .setNameFormat("sftp-ranged-read-%d").setDaemon(true).build());
+    }
+    return rangedReadExecutor;
+  }
+
+  private synchronized void shutdownRangedReadExecutor() {
+    if (rangedReadExecutor != null) {
+      rangedReadExecutor.shutdownNow();
+      rangedReadExecutor = null;
+    }
+  }
+
   /**
    * @return whether this client is currently connected and logged into the remote server
    */
@@ -296,19 +557,46 @@ public class SftpClient {
    * @return a immutable {@link List} of {@Link SftpFileAttributes}. Might be empty but will never be {@code null}
    */
   public List<SftpFileAttributes> list(String path) {
-    List<ChannelSftp.LsEntry> entries;
+    ImmutableList.Builder<SftpFileAttributes> entries = ImmutableList.builder();
+    list(path, entries::add);
+
+    return entries.build();
+  }
+
+  /**
+   * Lists the contents of the directory at the given {@code path}, handing each entry to the given {@code consumer} as soon
+   * as the batch which contains it is received from the server. Entries are never accumulated by this client, so memory
+   * usage doesn't depend on the size of the directory.
+   * <p>
+   * The {@code consumer} is invoked while the directory handle is still open, so it <b>MUST NOT</b> use this client.
+   *
+   * @param path     the path to list
+   * @param consumer a {@link Consumer} of {@link SftpFileAttributes}
+   */
+  public void list(String path, Consumer<SftpFileAttributes> consumer) {
+    Path directory = Paths.get(path);
+    Path cachedDirectory = attributesCache != null ? Paths.get(cacheKey(path)) : null;
+    LongAdder entries = new LongAdder();
+    final long startTime = nanoTime();
     try {
-      entries = sftp.ls(normalizePath(path));
+      operations.increment();
+      sftp.ls(normalizePath(path), entry -> {
+        entries.increment();
+        SftpFileAttributes file = new SftpFileAttributes(directory.resolve(entry.getFilename()), entry.getAttrs());
+        if (cachedDirectory != null && !file.isSymbolicLink() && !isDotEntry(entry.getFilename())) {
+          attributesCache.put(cachedDirectory.resolve(entry.getFilename()).toString(), file);
+        }
+        consumer.accept(file);
+        return CONTINUE;
+      });
     } catch (SftpException e) {
       throw exception("Found exception trying to list path " + path, e);
+    } finally {
+      record(STAT, 1, 0);
+      record(OPENDIR, 1, 0);
+      record(READDIR, readdirRequests(entries.sum()), nanoTime() - startTime);
+      record(CLOSE, 1, 0);
     }
-
-    if (isEmpty(entries)) {
-      return ImmutableList.of();
-    }
-
-    return entries.stream().map(entry -> new SftpFileAttributes(Paths.get(path).resolve(entry.getFilename()), entry.getAttrs()))
-        .collect(toImmutableList());
   }
 
   /**
@@ -319,14 +607,106 @@ public class SftpClient {
    */
   public InputStream getFileContent(String path) {
     try {
-      return sftp.get(normalizePath(path));
+      final long startTime = nanoTime();
+      InputStream content = sftp.get(normalizePath(path));
+      recordOpen(1, startTime);
+      return traceRead(countRead(content));
     } catch (SftpException e) {
       throw exception("Exception was found trying to retrieve the contents of file " + path, e);
     }
   }
 
   /**
-   * Writes the contents of the {@code stream} into the file at the given {@code path}
+   * An {@link InputStream} with the contents of the file at the given {@code path}, starting at the given {@code offset}
+   *
+   * @param path   the path to the file to read
+   * @param offset the position of the first byte to read
+   * @return an {@link InputStream}
+   */
+  public InputStream getFileContent(String path, long offset) {
+    try {
+      final long startTime = nanoTime();
+      InputStream content = sftp.get(normalizePath(path), null, offset);
+      recordOpen(1, startTime);
+      return traceRead(countRead(content));
+    } catch (SftpException e) {
+      throw exception(format("Exception was found trying to retrieve the contents of file %s from offset %d", path, offset), e);
+    }
+  }
+
+  /**
+   * An {@link InputStream} with the {@code length} bytes of the file at the given {@code path} which start at the given
+   * {@code offset}.
+   * <p>
+   * The read-ahead of the channel is capped to the requests needed to cover the range, so that reading it doesn't
+   * download up to {@link #setBulkRequests(int) bulkRequests} data requests past its end only to discard them on close.
+   * The channel gets its configured read-ahead back once the stream is closed, so no other transfer <b>MUST</b> take
+   * place over this client while it's open.
+   *
+   * @param path   the path to the file to read
+   * @param offset the position of the first byte to read
+   * @param length the amount of bytes to read
+   * @return an {@link InputStream} which ends after {@code length} bytes
+   */
+  public InputStream getFileContent(String path, long offset, long length) {
+    setChannelBulkRequests((int) max(1, min(bulkRequests, dataRequests(length))));
+    InputStream content;
+    try {
+      content = getFileContent(path, offset);
+    } catch (RuntimeException e) {
+      setChannelBulkRequests(bulkRequests);
+      throw e;
+    }
+
+    return new BoundedInputStream(content, length) {
+
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        } finally {
+          setChannelBulkRequests(bulkRequests);
+        }
+      }
+    };
+  }
+
+  private void setChannelBulkRequests(int requests) {
+    try {
+      sftp.setBulkRequests(requests);
+    } catch (JSchException e) {
+      throw new MuleRuntimeException(createStaticMessage(format("Could not set %d bulk requests on the SFTP channel", requests)),
+                                     e);
+    }
+  }
+
+  /**
+   * An {@link InputStream} with the contents of the given {@code file}.
+   * <p>
+   * If the file is at least as big as the {@link #setParallelTransferThreshold(long) parallel transfer threshold}, it is
+   * split in chunks which are concurrently fetched over {@link #setParallelChannels(int) several channels}.
+   *
+   * @param file the attributes of the file to read
+   * @return an {@link InputStream}
+   */
+  public InputStream getFileContent(FileAttributes file) {
+    if (parallelChannels > 1 && file.getSize() >= parallelTransferThreshold) {
+      LOGGER.debug("Reading file {} of {} bytes over {} channels", file.getPath(), file.getSize(), parallelChannels);
+      return new ParallelRangeInputStream(this, normalizePath(file.getPath()), file.getSize(), parallelChannels,
+                                          parallelChunkSize);
+    }
+
+    return getFileContent(file.getPath());
+  }
+
+  /**
+   * Writes the contents of the {@code stream} into the file at the given {@code path}.
+   * <p>
+   * Up to {@link #setBulkRequests(int) bulkRequests} write requests are kept in flight while their acknowledgements are
+   * collected asynchronously. If any of them is rejected by the server, the whole write fails.
+   * <p>
+   * Unless appending, content which spans more than one {@link #setParallelChunkSize(int) chunk} is concurrently written
+   * over {@link #setParallelChannels(int) several channels}.
    *
    * @param path the path to write into
    * @param stream the content to be written
@@ -334,7 +714,42 @@ public class SftpClient {
    * @throws Exception if anything goes wrong
    */
   public void write(String path, InputStream stream, FileWriteMode mode) throws Exception {
-    sftp.put(stream, path, toInt(mode));
+    if (metrics != null) {
+      stream = metrics.countWritten(stream);
+    }
+
+    if (parallelChannels > 1 && mode != FileWriteMode.APPEND) {
+      // the spooled content only grows as it's read, so that small payloads don't take a whole chunk of heap
+      ByteArrayOutputStream firstChunk = new ByteArrayOutputStream(min(WRITE_SPOOL_INITIAL_SIZE, parallelChunkSize));
+      firstChunk.write(new BoundedInputStream(stream, parallelChunkSize));
+      if (firstChunk.size() == parallelChunkSize) {
+        LOGGER.debug("Writing file {} over {} channels", path, parallelChannels);
+        try {
+          new ParallelChunkWriter(this, normalizePath(path), parallelChannels, parallelChunkSize)
+              .write(firstChunk.toByteArray(), stream);
+        } finally {
+          invalidate(path);
+        }
+        return;
+      }
+
+      stream = firstChunk.toInputStream();
+    }
+
+    TransferredBytesMonitor monitor = new TransferredBytesMonitor();
+    final long startTime = nanoTime();
+    try {
+      sftp.put(stream, normalizePath(path), monitor, toInt(mode));
+    } catch (SftpException e) {
+      throw exception(format("Could not write into file '%s'. Failure found after %d bytes were sent", path,
+                             monitor.getTransferredBytes()),
+                      e);
+    } finally {
+      recordOpen(mode == FileWriteMode.APPEND ? 2 : 1, 0);
+      record(WRITE, dataRequests(monitor.getTransferredBytes()), nanoTime() - startTime);
+      record(CLOSE, 1, 0);
+      invalidate(path);
+    }
   }
 
   /**
@@ -345,7 +760,143 @@ public class SftpClient {
    * @return an {@link OutputStream}
    */
   public OutputStream getOutputStream(String path, FileWriteMode mode) throws Exception {
-    return sftp.put(normalizePath(path), toInt(mode));
+    invalidate(path);
+    final long startTime = nanoTime();
+    OutputStream output = sftp.put(normalizePath(path), toInt(mode));
+    recordOpen(mode == FileWriteMode.APPEND ? 2 : 1, startTime);
+    return traceWrite(metrics != null ? metrics.countWritten(output) : output);
+  }
+
+  private InputStream countRead(InputStream content) {
+    return metrics != null ? metrics.countRead(content) : content;
+  }
+
+  private SftpATTRS stat(String path) throws SftpException {
+    final long startTime = nanoTime();
+    try {
+      return sftp.stat(path);
+    } finally {
+      record(STAT, 1, nanoTime() - startTime);
+    }
+  }
+
+  private void mkdirRequest(String directoryName) throws SftpException {
+    final long startTime = nanoTime();
+    try {
+      sftp.mkdir(normalizePath(directoryName));
+    } finally {
+      record(MKDIR, 1, nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * Accounts for the requests which open a file: one {@link SftpRequestType#OPEN} preceded by the given amount of
+   * {@link SftpRequestType#STAT stats}, which JSch issues to check whether the path is a directory or to find the size of
+   * the file.
+   */
+  private void recordOpen(int stats, long startTime) {
+    record(STAT, stats, 0);
+    record(OPEN, 1, startTime != 0 ? nanoTime() - startTime : 0);
+  }
+
+  private InputStream traceRead(InputStream content) {
+    return new ProxyInputStream(content) {
+
+      private final long startTime = nanoTime();
+      private long bytes = 0;
+      private boolean closed = false;
+
+      @Override
+      protected void afterRead(int count) {
+        if (count > 0) {
+          bytes += count;
+        }
+      }
+
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        } finally {
+          if (!closed) {
+            closed = true;
+            record(READ, dataRequests(bytes), nanoTime() - startTime);
+            record(CLOSE, 1, 0);
+          }
+        }
+      }
+    };
+  }
+
+  private OutputStream traceWrite(OutputStream output) {
+    return new ProxyOutputStream(output) {
+
+      private final long startTime = nanoTime();
+      private long bytes = 0;
+      private boolean closed = false;
+
+      @Override
+      protected void afterWrite(int count) {
+        bytes += count;
+      }
+
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        } finally {
+          if (!closed) {
+            closed = true;
+            record(WRITE, dataRequests(bytes), nanoTime() - startTime);
+            record(CLOSE, 1, 0);
+          }
+        }
+      }
+    };
+  }
+
+  private void record(SftpRequestType type, long count, long durationNanos) {
+    requests[type.ordinal()].add(count);
+    SftpTrace current = trace.get();
+    if (current != null) {
+      current.record(type, count, durationNanos);
+    }
+  }
+
+  /**
+   * Opens an {@link OutputStream} which writes into the file pointed by {@code path} starting at the given {@code offset},
+   * without truncating it. The file is expected to be exactly {@code remoteSize} bytes long while it's being opened.
+   *
+   * @param path       the path to write into
+   * @param offset     the position of the first byte to write
+   * @param remoteSize the current size of the file
+   * @return an {@link OutputStream}
+   */
+  OutputStream getOutputStream(String path, long offset, long remoteSize) {
+    try {
+      // resumed writes are positioned relative to the remote size, which is obtained when the file is opened
+      final long startTime = nanoTime();
+      OutputStream output = sftp.put(normalizePath(path), null, ChannelSftp.RESUME, offset - remoteSize);
+      recordOpen(2, startTime);
+      return traceWrite(output);
+    } catch (SftpException e) {
+      throw exception(format("Could not open file '%s' to write at offset %d", path, offset), e);
+    }
+  }
+
+  /**
+   * Obtains the size of the file at the given {@code path} straight from the server, bypassing the attributes cache
+   *
+   * @param path the path of the file
+   * @return the size of the file in bytes
+   */
+  long getRemoteSize(String path) {
+    try {
+      operations.increment();
+      return stat(normalizePath(path)).getSize();
+    } catch (SftpException e) {
+      throw exception(format("Could not obtain the size of file '%s'", path), e);
+    }
   }
 
   private int toInt(FileWriteMode mode) {
@@ -363,12 +914,73 @@ public class SftpClient {
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug("Trying to create directory " + directoryName);
       }
-      sftp.mkdir(normalizePath(directoryName));
+      operations.increment();
+      mkdirRequest(directoryName);
+      if (knownDirectories != null) {
+        knownDirectories.add(cacheKey(directoryName));
+      }
     } catch (SftpException e) {
       throw exception("Could not create the directory " + directoryName, e);
+    } finally {
+      invalidate(directoryName);
     }
   }
 
+  /**
+   * Attempts to create a directory, assuming that its parent exists.
+   * <p>
+   * The directory is considered to be successfully created if it already existed. Since SFTP servers don't report a
+   * specific status for that case, a failure is followed by a request of the path's attributes to tell it apart.
+   *
+   * @param directoryName the directory name
+   * @return {@code true} if the directory exists after the call, {@code false} if its parent doesn't exist
+   * @throws MuleRuntimeException if the directory could not be created for any other reason
+   */
+  public boolean tryMkdir(String directoryName) {
+    if (isKnownDirectory(directoryName)) {
+      return true;
+    }
+
+    try {
+      operations.increment();
+      mkdirRequest(directoryName);
+      if (knownDirectories != null) {
+        knownDirectories.add(cacheKey(directoryName));
+      }
+      return true;
+    } catch (SftpException e) {
+      if (e.id == SSH_FX_NO_SUCH_FILE) {
+        return false;
+      }
+
+      SftpFileAttributes attributes = getAttributes(Paths.get(directoryName));
+      if (attributes != null && attributes.isDirectory()) {
+        return true;
+      }
+      throw exception("Could not create the directory " + directoryName, e);
+    } finally {
+      invalidate(directoryName);
+    }
+  }
+
+  /**
+   * @param path the path to test
+   * @return whether the given {@code path} is known to be a directory without contacting the server
+   */
+  public boolean isKnownDirectory(String path) {
+    return knownDirectories != null && knownDirectories.contains(cacheKey(path));
+  }
+
+  /**
+   * Sets a {@link KnownDirectories} shared with other clients connected to the same server, which is used to avoid
+   * checking or creating the same directories over and over
+   *
+   * @param knownDirectories a {@link KnownDirectories}
+   */
+  public void setKnownDirectories(KnownDirectories knownDirectories) {
+    this.knownDirectories = knownDirectories;
+  }
+
   /**
    * Deletes the directory at {@code path}.
    * <p>
@@ -378,10 +990,170 @@ public class SftpClient {
    */
   public void deleteDirectory(String path) {
     try {
-      sftp.rmdir(path);
+      operations.increment();
+      final long startTime = nanoTime();
+      try {
+        sftp.rmdir(path);
+      } finally {
+        record(RMDIR, 1, nanoTime() - startTime);
+      }
     } catch (SftpException e) {
       throw exception("Could not delete directory " + path, e);
+    } finally {
+      invalidate(path, true);
+      if (knownDirectories != null) {
+        knownDirectories.remove(cacheKey(path));
+      }
+    }
+  }
+
+  /**
+   * Enables caching the attributes of the files which are stat'ed or listed through this client or any client
+   * {@link #fork() forked} from it. Entries are evicted once they're older than {@code ttlMillis} or in least recently
+   * used order once there are more than {@code maxEntries}. Operations performed through this client invalidate the
+   * entries of the affected paths, their parent directories and their descendants.
+   * <p>
+   * Since changes performed by other clients are not noticed until entries expire, the cache is disabled by default.
+   *
+   * @param ttlMillis  the time to live of each entry in milliseconds. {@code 0} disables the cache
+   * @param maxEntries the maximum amount of cached entries
+   */
+  public void setAttributesCache(long ttlMillis, int maxEntries) {
+    attributesCache = ttlMillis > 0
+        ? CacheBuilder.newBuilder().expireAfterWrite(ttlMillis, MILLISECONDS).maximumSize(maxEntries).build()
+        : null;
+  }
+
+  private String cacheKey(String path) {
+    Path cachePath = Paths.get(normalizePath(path));
+    if (!cachePath.isAbsolute()) {
+      cachePath = Paths.get(getWorkingDirectory()).resolve(cachePath);
+    }
+    return cachePath.normalize().toString();
+  }
+
+  private boolean isDotEntry(String name) {
+    return ".".equals(name) || "..".equals(name);
+  }
+
+  private boolean isCachedFile(String path) {
+    if (attributesCache == null) {
+      return false;
+    }
+
+    SftpFileAttributes attributes = attributesCache.getIfPresent(cacheKey(path));
+    return attributes != null && !attributes.isDirectory();
+  }
+
+  private void invalidate(String path) {
+    invalidate(path, false);
+  }
+
+  /**
+   * Removes the cached attributes of the given {@code path} and of its parent, whose contents changed. The attributes of
+   * its descendants are only removed if {@code directory} is {@code true}, since finding them requires a scan of the whole
+   * cache.
+   */
+  private void invalidate(String path, boolean directory) {
+    if (attributesCache == null) {
+      return;
+    }
+
+    String key = cacheKey(path);
+    attributesCache.invalidate(key);
+    Path parent = Paths.get(key).getParent();
+    if (parent != null) {
+      attributesCache.invalidate(parent.toString());
+    }
+
+    if (directory) {
+      String descendantsPrefix = key.endsWith("/") ? key : key + "/";
+      attributesCache.asMap().keySet().removeIf(cachedPath -> cachedPath.startsWith(descendantsPrefix));
+    }
+  }
+
+  /**
+   * @param name the name of an SFTP protocol extension, such as {@code posix-rename@openssh.com}
+   * @return whether the server advertised the given extension when this client's channel was opened
+   */
+  public boolean supportsExtension(String name) {
+    return sftp.getExtension(name) != null;
+  }
+
+  /**
+   * @return whether {@link #rename(String, String)} atomically replaces existing targets, which is the case when the server
+   *         supports the {@code posix-rename@openssh.com} extension
+   */
+  public boolean supportsAtomicRename() {
+    return supportsExtension(POSIX_RENAME_EXTENSION);
+  }
+
+  /**
+   * Tells whether an exception thrown by {@link #rename(String, String)} means that the server refused to replace the
+   * target, for example because it's a non empty directory, as opposed to the rename not being possible at all (missing
+   * source, denied permissions, lost connection, etc). In the former case, deleting the target first may succeed.
+   *
+   * @param e an exception thrown while renaming
+   * @return whether the server answered with a generic failure or an unsupported operation status
+   */
+  public static boolean isRenameRefused(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SftpException) {
+        int status = ((SftpException) cause).id;
+        return status == SSH_FX_FAILURE || status == SSH_FX_OP_UNSUPPORTED;
+      }
     }
+    return false;
+  }
+
+  /**
+   * @return the number of operations which this client has sent to the server over its channel, excluding content transfers
+   */
+  public long getOperationCount() {
+    return operations.sum();
+  }
+
+  /**
+   * @param type a {@link SftpRequestType}
+   * @return the amount of requests of the given type which this client has sent over its channel
+   */
+  public long getRequestCount(SftpRequestType type) {
+    return requests[type.ordinal()].sum();
+  }
+
+  /**
+   * Binds a new {@link SftpTrace} to this client and every client forked from it, to which the requests they send are
+   * attributed until it's closed. Only one operation is expected to be traced at a time.
+   *
+   * @param operation the name of the traced operation
+   * @return the new {@link SftpTrace}
+   */
+  public SftpTrace startTrace(String operation) {
+    SftpTrace[] started = new SftpTrace[1];
+    started[0] = new SftpTrace(operation, () -> trace.compareAndSet(started[0], null));
+    trace.set(started[0]);
+    return started[0];
+  }
+
+  /**
+   * @return the {@link SftpTrace} currently bound to this client, or {@code null} if none is
+   */
+  public SftpTrace getTrace() {
+    return trace.get();
+  }
+
+  /**
+   * @param metrics the {@link SftpMetrics} in which transferred bytes are accounted, or {@code null} to not account them
+   */
+  public void setMetrics(SftpMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * @return the {@link SftpMetrics} of the config which owns this client, or {@code null} if metrics are disabled
+   */
+  public SftpMetrics getMetrics() {
+    return metrics;
   }
 
   public String getHost() {
@@ -425,6 +1197,72 @@ public class SftpClient {
     this.connectionTimeoutMillis = connectionTimeoutMillis;
   }
 
+  /**
+   * Sets the maximum number of read or write requests which are kept in flight for each open file. Small windows cap
+   * throughput on high latency links, since each request has to wait for the server before more data goes out.
+   *
+   * @param bulkRequests the amount of outstanding requests. Must be greater than zero
+   */
+  public void setBulkRequests(int bulkRequests) {
+    if (bulkRequests < 1) {
+      throw new IllegalArgumentException(format("bulkRequests must be greater than zero, but %d was found", bulkRequests));
+    }
+    this.bulkRequests = bulkRequests;
+  }
+
+  /**
+   * @return the number of channels used to transfer large files or to walk directory trees
+   */
+  public int getParallelChannels() {
+    return parallelChannels;
+  }
+
+  /**
+   * Sets the number of channels used to transfer files which exceed the
+   * {@link #setParallelTransferThreshold(long) parallel transfer threshold} and to walk directory trees
+   *
+   * @param parallelChannels the amount of channels. {@code 1} disables parallel transfers
+   */
+  public void setParallelChannels(int parallelChannels) {
+    if (parallelChannels < 1) {
+      throw new IllegalArgumentException(format("parallelChannels must be greater than zero, but %d was found",
+                                                parallelChannels));
+    }
+    this.parallelChannels = parallelChannels;
+  }
+
+  public void setParallelTransferThreshold(long parallelTransferThreshold) {
+    this.parallelTransferThreshold = parallelTransferThreshold;
+  }
+
+  public void setParallelChunkSize(int parallelChunkSize) {
+    if (parallelChunkSize < 1) {
+      throw new IllegalArgumentException(format("parallelChunkSize must be greater than zero, but %d was found",
+                                                parallelChunkSize));
+    }
+    this.parallelChunkSize = parallelChunkSize;
+  }
+
+  /**
+   * @return whether copies write into the target over a channel {@link #fork() forked} from this client
+   */
+  public boolean isCopyOverSameSession() {
+    return copyOverSameSession;
+  }
+
+  public void setCopyOverSameSession(boolean copyOverSameSession) {
+    this.copyOverSameSession = copyOverSameSession;
+  }
+
+  /**
+   * Makes this client lease its SSH session from the given {@code sessionPool} instead of establishing its own one
+   *
+   * @param sessionPool a {@link SftpSessionPool}
+   */
+  public void setSessionPool(SftpSessionPool sessionPool) {
+    this.sessionPool = sessionPool;
+  }
+
   public void setProxyConfig(SftpProxyConfig proxyConfig) throws ConnectionException {
     if (proxyConfig != null) {
       if (proxyConfig.getHost() == null || proxyConfig.getPort() == null) {
@@ -439,4 +1277,28 @@ public class SftpClient {
       this.proxyConfig = proxyConfig;
     }
   }
+
+  /**
+   * A {@link SftpProgressMonitor} which keeps track of how many bytes were handed to the server
+   */
+  private static class TransferredBytesMonitor implements SftpProgressMonitor {
+
+    private long transferredBytes = 0;
+
+    @Override
+    public void init(int op, String src, String dest, long max) {}
+
+    @Override
+    public boolean count(long count) {
+      transferredBytes += count;
+      return true;
+    }
+
+    @Override
+    public void end() {}
+
+    private long getTransferredBytes() {
+      return transferredBytes;
+    }
+  }
 }
@@ -7,30 +7,42 @@
 package org.mule.extension.sftp.internal.connection;
 
 import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mule.extension.file.common.api.exceptions.FileError.CANNOT_REACH;
 import static org.mule.extension.file.common.api.exceptions.FileError.CONNECTION_TIMEOUT;
 import static org.mule.extension.file.common.api.exceptions.FileError.DISCONNECTED;
 import static org.mule.extension.file.common.api.exceptions.FileError.INVALID_CREDENTIALS;
 import static org.mule.extension.file.common.api.exceptions.FileError.UNKNOWN_HOST;
+import static org.mule.extension.sftp.internal.connection.SftpClient.DEFAULT_ATTRIBUTES_CACHE_MAX_ENTRIES;
 import static org.mule.runtime.api.meta.model.display.PathModel.Type.FILE;
 import static org.mule.runtime.extension.api.annotation.param.ParameterGroup.CONNECTION;
+import static org.mule.runtime.extension.api.annotation.param.display.Placement.ADVANCED_TAB;
 import org.mule.extension.file.common.api.FileSystemProvider;
 import org.mule.extension.file.common.api.exceptions.FileError;
 import org.mule.extension.sftp.api.SftpAuthenticationMethod;
 import org.mule.extension.sftp.api.SftpConnectionException;
+import org.mule.extension.sftp.internal.CacheSettings;
 import org.mule.extension.sftp.internal.SftpConnector;
 import org.mule.extension.sftp.internal.TimeoutSettings;
+import org.mule.extension.sftp.internal.TransferSettings;
+import org.mule.extension.sftp.internal.metrics.SftpMetrics;
 import org.mule.extension.sftp.random.alg.PRNGAlgorithm;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.api.connection.PoolingConnectionProvider;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.lifecycle.Startable;
+import org.mule.runtime.api.lifecycle.Stoppable;
 import org.mule.runtime.api.lock.LockFactory;
 import org.mule.runtime.extension.api.annotation.Alias;
 import org.mule.runtime.extension.api.annotation.param.Optional;
 import org.mule.runtime.extension.api.annotation.param.Parameter;
 import org.mule.runtime.extension.api.annotation.param.ParameterGroup;
+import org.mule.runtime.extension.api.annotation.param.RefName;
 import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
 import org.mule.runtime.extension.api.annotation.param.display.Path;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
 import org.mule.runtime.extension.api.annotation.param.display.Summary;
 
 import com.google.common.base.Joiner;
@@ -53,11 +65,13 @@ import org.apache.log4j.Logger;
  */
 @DisplayName("SFTP Connection")
 public class SftpConnectionProvider extends FileSystemProvider<SftpFileSystem>
-    implements PoolingConnectionProvider<SftpFileSystem> {
+    implements PoolingConnectionProvider<SftpFileSystem>, Startable, Stoppable {
 
   private static final Logger LOGGER = Logger.getLogger(SftpConnectionProvider.class);
 
   private static final String TIMEOUT_CONFIGURATION = "Timeout Configuration";
+  private static final String TRANSFER_CONFIGURATION = "Transfer Configuration";
+  private static final String CACHE_CONFIGURATION = "Cache Configuration";
   private static final String SFTP_ERROR_MESSAGE_MASK =
       "Could not establish SFTP connection with host: '%s' at port: '%d' - %s";
   private static final String AUTH_FAIL_MESSAGE = "Auth fail";
@@ -80,9 +94,19 @@ public class SftpConnectionProvider extends FileSystemProvider<SftpFileSystem>
   @ParameterGroup(name = TIMEOUT_CONFIGURATION)
   private TimeoutSettings timeoutSettings = new TimeoutSettings();
 
+  @ParameterGroup(name = TRANSFER_CONFIGURATION)
+  private TransferSettings transferSettings = new TransferSettings();
+
+  @ParameterGroup(name = CACHE_CONFIGURATION)
+  private CacheSettings cacheSettings = new CacheSettings();
+
   @Override
   public void disconnect(SftpFileSystem ftpFileSystem) {
     ftpFileSystem.disconnect();
+    PrewarmedClientPool prewarmed = prewarmedClients;
+    if (prewarmed != null) {
+      prewarmed.replenish();
+    }
   }
 
   @Override
@@ -129,6 +153,58 @@ public class SftpConnectionProvider extends FileSystemProvider<SftpFileSystem>
     timeoutSettings.setResponseTimeoutUnit(responseTimeoutUnit);
   }
 
+  public void setBulkRequests(Integer bulkRequests) {
+    transferSettings.setBulkRequests(bulkRequests);
+  }
+
+  public void setParallelChannels(Integer parallelChannels) {
+    transferSettings.setParallelChannels(parallelChannels);
+  }
+
+  public void setParallelTransferThreshold(Long parallelTransferThreshold) {
+    transferSettings.setParallelTransferThreshold(parallelTransferThreshold);
+  }
+
+  public void setParallelChunkSize(Integer parallelChunkSize) {
+    transferSettings.setParallelChunkSize(parallelChunkSize);
+  }
+
+  public void setCopyOverSameSession(Boolean copyOverSameSession) {
+    transferSettings.setCopyOverSameSession(copyOverSameSession);
+  }
+
+  public void setAttributesCacheTtl(Integer attributesCacheTtl) {
+    cacheSettings.setAttributesCacheTtl(attributesCacheTtl);
+  }
+
+  public void setAttributesCacheTtlUnit(TimeUnit attributesCacheTtlUnit) {
+    cacheSettings.setAttributesCacheTtlUnit(attributesCacheTtlUnit);
+  }
+
+  public void setAttributesCacheMaxEntries(Integer attributesCacheMaxEntries) {
+    cacheSettings.setAttributesCacheMaxEntries(attributesCacheMaxEntries);
+  }
+
+  public void setInMemoryLocks(Boolean inMemoryLocks) {
+    this.inMemoryLocks = inMemoryLocks;
+  }
+
+  private boolean isInMemoryLocks() {
+    return inMemoryLocks != null && inMemoryLocks;
+  }
+
+  public void setMetricsEnabled(Boolean metricsEnabled) {
+    this.metricsEnabled = metricsEnabled;
+  }
+
+  private boolean isMetricsEnabled() {
+    return metricsEnabled != null && metricsEnabled;
+  }
+
+  public void setKnownDirectoriesMaxEntries(Integer knownDirectoriesMaxEntries) {
+    cacheSettings.setKnownDirectoriesMaxEntries(knownDirectoriesMaxEntries);
+  }
+
   @ParameterGroup(name = CONNECTION)
   private SftpConnectionSettings connectionSettings = new SftpConnectionSettings();
 
@@ -157,10 +233,149 @@ public class SftpConnectionProvider extends FileSystemProvider<SftpFileSystem>
   @Alias("sftp-proxy-config")
   private SftpProxyConfig proxyConfig;
 
+  /**
+   * The maximum number of connections which share a single SSH session, each of them through its own SFTP channel. Sharing
+   * sessions avoids going through a full handshake for each new connection and reduces the amount of sessions opened
+   * against the server. A value of {@code 1} gives each connection its own session.
+   * <p>
+   * Notice that servers usually limit the amount of channels per session (OpenSSH defaults to 10) and that parallel
+   * transfers open additional channels over the session of the connection which performs them.
+   */
+  @Parameter
+  @Optional(defaultValue = "1")
+  @Placement(tab = ADVANCED_TAB)
+  @Summary("Maximum number of connections which share a single SSH session")
+  private Integer maxChannelsPerSession;
+
+  /**
+   * The minimum number of idle, already authenticated connections which are established in the background when the
+   * connector starts and every time a connection is handed out or evicted, so that flows don't need to wait for a
+   * handshake. A value of {@code 0} establishes connections on demand.
+   */
+  @Parameter
+  @Optional(defaultValue = "0")
+  @Placement(tab = ADVANCED_TAB)
+  @Summary("Minimum number of idle connections established in advance")
+  private Integer minIdleConnections;
+
+  /**
+   * Whether paths are locked in memory, by this connection provider, instead of through the runtime's lock factory.
+   * In-memory locks are much cheaper to acquire, but they are not shared among the nodes of a cluster, so they should only
+   * be used if a single node operates over the locked files.
+   */
+  @Parameter
+  @Optional(defaultValue = "false")
+  @Placement(tab = ADVANCED_TAB)
+  @Summary("Whether paths are locked in memory instead of through the runtime's lock factory")
+  private Boolean inMemoryLocks;
+
+  /**
+   * Whether the operations executed through this config are measured. Measurements are exposed through JMX and
+   * forwarded to the {@link org.mule.extension.sftp.api.SftpMetricsReporter reporters} found on the classpath.
+   */
+  @Parameter
+  @Optional(defaultValue = "false")
+  @Placement(tab = ADVANCED_TAB)
+  @Summary("Whether operations are measured and exposed through JMX")
+  private Boolean metricsEnabled;
+
+  @RefName
+  private String configName;
+
   private SftpClientFactory clientFactory = new SftpClientFactory();
+  private SftpSessionPool sessionPool;
+  private KnownDirectories knownDirectories;
+  private volatile PrewarmedClientPool prewarmedClients;
+  private final LatencyStatistics handshakeLatency = new LatencyStatistics();
+  private final LatencyStatistics acquireLatency = new LatencyStatistics();
+  private final SftpPathLockManager lockManager = new SftpPathLockManager();
+  private volatile SftpMetrics metrics;
+
+  @Override
+  public void start() throws MuleException {
+    if (isMetricsEnabled()) {
+      getMetrics().register();
+    }
+    if (minIdleConnections != null && minIdleConnections > 0) {
+      prewarmedClients = new PrewarmedClientPool(minIdleConnections, this::createClient);
+      prewarmedClients.start();
+    }
+  }
+
+  @Override
+  public void stop() throws MuleException {
+    if (metrics != null) {
+      metrics.unregister();
+    }
+    PrewarmedClientPool prewarmed = prewarmedClients;
+    if (prewarmed != null) {
+      prewarmedClients = null;
+      prewarmed.stop();
+    }
+  }
 
   @Override
   public SftpFileSystem connect() throws ConnectionException {
+    final long startTime = nanoTime();
+    PrewarmedClientPool prewarmed = prewarmedClients;
+    SftpClient client = prewarmed != null ? prewarmed.take() : null;
+    if (client == null) {
+      client = createClient();
+    }
+
+    final long acquireTime = nanoTime() - startTime;
+    acquireLatency.record(acquireTime);
+    if (isMetricsEnabled()) {
+      getMetrics().recordConnectionAcquire(acquireTime);
+    }
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(format("Acquired SFTP connection to host: '%s'. Acquire times: [%s]. Handshake times: [%s]",
+                          connectionSettings.getHost(), acquireLatency, handshakeLatency));
+    }
+
+    return new SftpFileSystem(client, getWorkingDir(), lockFactory, isInMemoryLocks() ? lockManager : null);
+  }
+
+  /**
+   * @return the time it takes to hand out a connection, whether it was established in advance or not
+   */
+  public LatencyStatistics getAcquireLatency() {
+    return acquireLatency;
+  }
+
+  /**
+   * @return the {@link SftpPathLockManager} which tracks in-memory locks, along with their acquire times and contention
+   */
+  public SftpPathLockManager getLockManager() {
+    return lockManager;
+  }
+
+  /**
+   * @return the {@link SftpMetrics} of this config, or {@code null} if metrics are disabled
+   */
+  public SftpMetrics getMetrics() {
+    if (!isMetricsEnabled()) {
+      return null;
+    }
+
+    if (metrics == null) {
+      synchronized (this) {
+        if (metrics == null) {
+          metrics = new SftpMetrics(configName);
+        }
+      }
+    }
+    return metrics;
+  }
+
+  /**
+   * @return the time it takes to establish and authenticate a new connection
+   */
+  public LatencyStatistics getHandshakeLatency() {
+    return handshakeLatency;
+  }
+
+  private SftpClient createClient() throws ConnectionException {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug(format("Connecting to host: '%s' at port: '%d'", connectionSettings.getHost(), connectionSettings.getPort()));
     }
@@ -174,6 +389,13 @@ public class SftpConnectionProvider extends FileSystemProvider<SftpFileSystem>
     }
     client.setKnownHostsFile(knownHostsFile);
     client.setProxyConfig(proxyConfig);
+    configureTransfer(client);
+    configureCache(client);
+    client.setMetrics(getMetrics());
+    if (maxChannelsPerSession != null && maxChannelsPerSession > 1) {
+      client.setSessionPool(getSessionPool());
+    }
+    final long startTime = nanoTime();
     try {
       client.login(connectionSettings.getUsername());
     } catch (JSchException e) {
@@ -181,8 +403,55 @@ public class SftpConnectionProvider extends FileSystemProvider<SftpFileSystem>
     } catch (Exception e) {
       throw new ConnectionException(getErrorMessage(connectionSettings, e.getMessage()), e);
     }
+    handshakeLatency.record(nanoTime() - startTime);
+
+    return client;
+  }
+
+  private synchronized SftpSessionPool getSessionPool() {
+    if (sessionPool == null) {
+      sessionPool = new SftpSessionPool(maxChannelsPerSession);
+    }
+    return sessionPool;
+  }
+
+  private void configureTransfer(SftpClient client) {
+    if (transferSettings.getBulkRequests() != null) {
+      client.setBulkRequests(transferSettings.getBulkRequests());
+    }
+    if (transferSettings.getParallelChannels() != null) {
+      client.setParallelChannels(transferSettings.getParallelChannels());
+    }
+    if (transferSettings.getParallelTransferThreshold() != null) {
+      client.setParallelTransferThreshold(transferSettings.getParallelTransferThreshold());
+    }
+    if (transferSettings.getParallelChunkSize() != null) {
+      client.setParallelChunkSize(transferSettings.getParallelChunkSize());
+    }
+    if (transferSettings.getCopyOverSameSession() != null) {
+      client.setCopyOverSameSession(transferSettings.getCopyOverSameSession());
+    }
+  }
 
-    return new SftpFileSystem(client, getWorkingDir(), lockFactory);
+  private void configureCache(SftpClient client) {
+    Integer ttl = cacheSettings.getAttributesCacheTtl();
+    if (ttl != null && ttl > 0) {
+      TimeUnit ttlUnit = cacheSettings.getAttributesCacheTtlUnit() != null ? cacheSettings.getAttributesCacheTtlUnit() : SECONDS;
+      Integer maxEntries = cacheSettings.getAttributesCacheMaxEntries();
+      client.setAttributesCache(ttlUnit.toMillis(ttl), maxEntries != null ? maxEntries : DEFAULT_ATTRIBUTES_CACHE_MAX_ENTRIES);
+    }
+
+    Integer knownDirectoriesMaxEntries = cacheSettings.getKnownDirectoriesMaxEntries();
+    if (knownDirectoriesMaxEntries != null && knownDirectoriesMaxEntries > 0) {
+      client.setKnownDirectories(getKnownDirectories(knownDirectoriesMaxEntries));
+    }
+  }
+
+  private synchronized KnownDirectories getKnownDirectories(int maxEntries) {
+    if (knownDirectories == null) {
+      knownDirectories = new KnownDirectories(maxEntries);
+    }
+    return knownDirectories;
   }
 
   void setPort(int port) {
@@ -225,6 +494,14 @@ public class SftpConnectionProvider extends FileSystemProvider<SftpFileSystem>
     this.proxyConfig = proxyConfig;
   }
 
+  void setMaxChannelsPerSession(Integer maxChannelsPerSession) {
+    this.maxChannelsPerSession = maxChannelsPerSession;
+  }
+
+  void setMinIdleConnections(Integer minIdleConnections) {
+    this.minIdleConnections = minIdleConnections;
+  }
+
   void setClientFactory(SftpClientFactory clientFactory) {
     this.clientFactory = clientFactory;
   }
@@ -28,6 +28,7 @@ import org.mule.extension.file.common.api.lock.PathLock;
 import org.mule.extension.file.common.api.lock.URLPathLock;
 import org.mule.extension.sftp.api.SftpConnectionException;
 import org.mule.extension.sftp.api.SftpFileAttributes;
+import org.mule.extension.sftp.internal.command.SftpBulkCommand;
 import org.mule.extension.sftp.internal.command.SftpCopyCommand;
 import org.mule.extension.sftp.internal.command.SftpCreateDirectoryCommand;
 import org.mule.extension.sftp.internal.command.SftpDeleteCommand;
@@ -40,6 +41,8 @@ import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.lock.LockFactory;
 
+import com.jcraft.jsch.JSchException;
+
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -61,7 +64,9 @@ public class SftpFileSystem extends AbstractFileSystem {
   protected final ReadCommand readCommand;
   protected final RenameCommand renameCommand;
   protected final WriteCommand writeCommand;
+  protected final SftpBulkCommand bulkCommand;
   private final LockFactory lockFactory;
+  private final SftpPathLockManager lockManager;
 
 
   private static String resolveBasePath(String basePath, SftpClient client) {
@@ -77,9 +82,22 @@ public class SftpFileSystem extends AbstractFileSystem {
   }
 
   public SftpFileSystem(SftpClient client, String basePath, LockFactory lockFactory) {
+    this(client, basePath, lockFactory, null);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param client      the {@link SftpClient} which connects to the remote server
+   * @param basePath    the working directory, or {@code null} to use the remote server default
+   * @param lockFactory the {@link LockFactory} used to lock paths when no {@code lockManager} is given
+   * @param lockManager a {@link SftpPathLockManager} used to lock paths in memory. May be {@code null}
+   */
+  public SftpFileSystem(SftpClient client, String basePath, LockFactory lockFactory, SftpPathLockManager lockManager) {
     super(resolveBasePath(basePath, client));
     this.client = client;
     this.lockFactory = lockFactory;
+    this.lockManager = lockManager;
 
     copyCommand = new SftpCopyCommand(this, client);
     createDirectoryCommand = new SftpCreateDirectoryCommand(this, client);
@@ -89,12 +107,33 @@ public class SftpFileSystem extends AbstractFileSystem {
     readCommand = new SftpReadCommand(this, client);
     renameCommand = new SftpRenameCommand(this, client);
     writeCommand = new SftpWriteCommand(this, client);
+    bulkCommand = new SftpBulkCommand(this, client);
   }
 
   public void disconnect() {
     client.disconnect();
   }
 
+  /**
+   * Creates a new {@link SftpFileSystem} which operates over a channel {@link SftpClient#fork() forked} from this
+   * instance's client. Disconnecting the returned instance only closes that channel.
+   *
+   * @return a new {@link SftpFileSystem}
+   * @throws JSchException if the channel could not be opened
+   */
+  public SftpFileSystem fork() throws JSchException {
+    SftpFileSystem fork = new SftpFileSystem(client.fork(), getBasePath(), lockFactory, lockManager);
+    fork.changeToBaseDir();
+    return fork;
+  }
+
+  /**
+   * @return the {@link SftpClient} which connects to the remote server
+   */
+  public SftpClient getClient() {
+    return client;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -114,7 +153,7 @@ public class SftpFileSystem extends AbstractFileSystem {
   }
 
   public InputStream retrieveFileContent(FileAttributes filePayload) {
-    return client.getFileContent(filePayload.getPath());
+    return client.getFileContent(filePayload);
   }
 
   protected boolean isConnected() {
@@ -124,10 +163,14 @@ public class SftpFileSystem extends AbstractFileSystem {
   /**
    * {@inheritDoc}
    *
-   * @return a {@link URLPathLock} based on the {@link #client}'s connection information
+   * @return a lock obtained from the {@link SftpPathLockManager} if one was given, or a {@link URLPathLock} based on the
+   *         {@link #client}'s connection information otherwise
    */
   @Override
   protected PathLock createLock(Path path, Object... params) {
+    if (lockManager != null) {
+      return lockManager.createLock(client.getHost(), client.getPort(), path);
+    }
     return new URLPathLock(toURL(path), lockFactory);
   }
 
@@ -203,6 +246,13 @@ public class SftpFileSystem extends AbstractFileSystem {
     return writeCommand;
   }
 
+  /**
+   * @return the {@link SftpBulkCommand} which operates on many paths at once
+   */
+  public SftpBulkCommand getBulkCommand() {
+    return bulkCommand;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.connection;
+
+import static java.lang.System.nanoTime;
+import static org.mule.extension.sftp.internal.SftpUtils.normalizePath;
+import org.mule.extension.file.common.api.lock.PathLock;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps track of the paths locked through the {@link SftpFileSystem file systems} of a single
+ * {@link SftpConnectionProvider}, without going through the runtime's {@link org.mule.runtime.api.lock.LockFactory}.
+ * <p>
+ * Locks are keyed by host, port and normalized path and held in a {@link ConcurrentHashMap}, so that locking unrelated
+ * paths only contends on the bin of the map in which they fall. Since the locks only live in memory, they are not shared
+ * among the nodes of a cluster.
+ *
+ * @since 1.0
+ */
+public final class SftpPathLockManager {
+
+  private final ConcurrentMap<LockKey, PathLock> locks = new ConcurrentHashMap<>();
+  private final LatencyStatistics acquireLatency = new LatencyStatistics();
+  private final LongAdder contentions = new LongAdder();
+
+  /**
+   * Creates a lock over the given {@code path}. The returned lock is not acquired.
+   *
+   * @param host the host of the server in which the path lives
+   * @param port the port of the server in which the path lives
+   * @param path the path to lock
+   * @return a new {@link PathLock}
+   */
+  public PathLock createLock(String host, int port, Path path) {
+    return new ManagedPathLock(new LockKey(host, port, path != null ? normalizePath(path) : ""));
+  }
+
+  /**
+   * @return the time it takes to attempt acquiring a lock
+   */
+  public LatencyStatistics getAcquireLatency() {
+    return acquireLatency;
+  }
+
+  /**
+   * @return the amount of attempts to acquire a lock which failed because it was already held
+   */
+  public long getContentionCount() {
+    return contentions.sum();
+  }
+
+  /**
+   * @return the amount of locks currently held
+   */
+  public int getHeldLockCount() {
+    return locks.size();
+  }
+
+  private final class ManagedPathLock implements PathLock {
+
+    private final LockKey key;
+
+    private ManagedPathLock(LockKey key) {
+      this.key = key;
+    }
+
+    @Override
+    public boolean tryLock() {
+      final long startTime = nanoTime();
+      PathLock owner = locks.putIfAbsent(key, this);
+      acquireLatency.record(nanoTime() - startTime);
+
+      if (owner == null || owner == this) {
+        return true;
+      }
+
+      contentions.increment();
+      return false;
+    }
+
+    @Override
+    public boolean isLocked() {
+      return locks.containsKey(key);
+    }
+
+    @Override
+    public void release() {
+      locks.remove(key, this);
+    }
+  }
+
+  private static final class LockKey {
+
+    private final String host;
+    private final int port;
+    private final String path;
+    private final int hashCode;
+
+    private LockKey(String host, int port, String path) {
+      this.host = host;
+      this.port = port;
+      this.path = path;
+      hashCode = Objects.hash(host, port, path);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof LockKey)) {
+        return false;
+      }
+
+      LockKey other = (LockKey) obj;
+      return port == other.port && path.equals(other.path) && Objects.equals(host, other.host);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.connection;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shares authenticated SSH {@link Session sessions} among the {@link SftpClient clients} created by a
+ * {@link SftpConnectionProvider}, so that each of them only needs to open a lightweight SFTP channel instead of going
+ * through a full TCP, key exchange and authentication handshake.
+ * <p>
+ * Each session is leased to up to {@code maxChannelsPerSession} clients at a time. Sessions are disconnected once the last
+ * client using them releases its lease.
+ *
+ * @since 1.0
+ */
+public class SftpSessionPool {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SftpSessionPool.class);
+
+  private final int maxChannelsPerSession;
+  private final Map<Session, Integer> leases = new IdentityHashMap<>();
+
+  /**
+   * Creates a new instance
+   *
+   * @param maxChannelsPerSession the maximum amount of clients which may share a single session
+   */
+  public SftpSessionPool(int maxChannelsPerSession) {
+    this.maxChannelsPerSession = maxChannelsPerSession;
+  }
+
+  /**
+   * Leases a connected session which is not yet used by {@code maxChannelsPerSession} clients, creating a new one through
+   * the given {@code sessionFactory} if none is available. The lease <b>MUST</b> be returned through
+   * {@link #release(Session)}
+   *
+   * @param sessionFactory the {@link SessionFactory} used to create a new session if needed
+   * @return a connected {@link Session}
+   * @throws JSchException if a new session could not be established
+   */
+  public Session acquire(SessionFactory sessionFactory) throws JSchException {
+    Session session = leaseExisting();
+    if (session != null) {
+      return session;
+    }
+
+    session = sessionFactory.create();
+    synchronized (this) {
+      leases.put(session, 1);
+      LOGGER.debug("Opened new shared SSH session. {} sessions are now active", leases.size());
+    }
+
+    return session;
+  }
+
+  /**
+   * Returns the lease of the given {@code session}, disconnecting it if it's no longer used
+   *
+   * @param session a {@link Session} obtained through {@link #acquire(SessionFactory)}
+   */
+  public void release(Session session) {
+    boolean unused;
+    synchronized (this) {
+      Integer count = leases.get(session);
+      if (count == null) {
+        return;
+      }
+
+      unused = count <= 1;
+      if (unused) {
+        leases.remove(session);
+      } else {
+        leases.put(session, count - 1);
+      }
+    }
+
+    if (unused && session.isConnected()) {
+      session.disconnect();
+    }
+  }
+
+  private synchronized Session leaseExisting() {
+    Iterator<Map.Entry<Session, Integer>> entries = leases.entrySet().iterator();
+    while (entries.hasNext()) {
+      Map.Entry<Session, Integer> entry = entries.next();
+      if (!entry.getKey().isConnected()) {
+        entries.remove();
+        continue;
+      }
+
+      if (entry.getValue() < maxChannelsPerSession) {
+        entry.setValue(entry.getValue() + 1);
+        return entry.getKey();
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Creates new connected and authenticated sessions
+   */
+  @FunctionalInterface
+  public interface SessionFactory {
+
+    Session create() throws JSchException;
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.metrics;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Measurements of a single kind of operation. Latencies are recorded in microseconds into an auto resizing histogram.
+ *
+ * @since 1.0
+ */
+final class OperationMetrics {
+
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  private final LongAdder count = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder roundTrips = new LongAdder();
+  private final ConcurrentHistogram latencies = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+  void record(long durationNanos, long roundTrips, boolean failed) {
+    count.increment();
+    this.roundTrips.add(roundTrips);
+    if (failed) {
+      errors.increment();
+    }
+    latencies.recordValue(NANOSECONDS.toMicros(durationNanos));
+  }
+
+  long getCount() {
+    return count.sum();
+  }
+
+  long getErrors() {
+    return errors.sum();
+  }
+
+  long getRoundTrips() {
+    return roundTrips.sum();
+  }
+
+  /**
+   * @return a consistent copy of the recorded latencies
+   */
+  Histogram getLatencies() {
+    return latencies.copy();
+  }
+}
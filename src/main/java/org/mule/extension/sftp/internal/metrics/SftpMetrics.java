@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.metrics;
+
+import static java.lang.System.nanoTime;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.extension.sftp.api.SftpMetricsReporter;
+import org.mule.runtime.extension.api.exception.ModuleException;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.HdrHistogram.Histogram;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.commons.io.output.ProxyOutputStream;
+import org.slf4j.Logger;
+
+/**
+ * Collects the measurements of the operations executed through a single SFTP config: per operation counts, latency
+ * histograms, round trips and errors, the amount of bytes transferred, errors by type and the time it takes to acquire
+ * connections.
+ * <p>
+ * Instances are only created for configs which enable metrics, so that no measurement is taken otherwise. Measurements
+ * are exposed through JMX once {@link #register() registered} and forwarded to every {@link SftpMetricsReporter} found
+ * on the classpath.
+ *
+ * @since 1.0
+ */
+public final class SftpMetrics implements SftpMetricsMXBean {
+
+  private static final Logger LOGGER = getLogger(SftpMetrics.class);
+  private static final String OBJECT_NAME_PATTERN = "org.mule.extension.sftp:type=SftpMetrics,config=%s";
+  private static final String UNKNOWN_ERROR = "UNKNOWN";
+
+  private final String configName;
+  private final List<SftpMetricsReporter> reporters;
+  private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+  private volatile OperationMetrics connectionAcquires = new OperationMetrics();
+  private final LongAdder bytesRead = new LongAdder();
+  private final LongAdder bytesWritten = new LongAdder();
+  private ObjectName objectName;
+
+  /**
+   * Creates a new instance, loading the available {@link SftpMetricsReporter reporters}
+   *
+   * @param configName the name of the config which is measured
+   */
+  public SftpMetrics(String configName) {
+    this(configName, ImmutableList.copyOf(ServiceLoader.load(SftpMetricsReporter.class, SftpMetrics.class.getClassLoader())));
+  }
+
+  /**
+   * Creates a new instance which forwards measurements to the given {@code reporters}
+   *
+   * @param configName the name of the config which is measured
+   * @param reporters  the {@link SftpMetricsReporter reporters} to notify
+   */
+  public SftpMetrics(String configName, List<SftpMetricsReporter> reporters) {
+    this.configName = configName;
+    this.reporters = reporters;
+  }
+
+  /**
+   * Executes the given {@code operation}, measuring how long it takes, how many requests it sends and with which error
+   * type it fails, if it does
+   *
+   * @param name      the name of the operation
+   * @param trace     the {@link SftpTrace} into which the requests sent by the operation are recorded
+   * @param operation the operation to execute
+   * @param <T>       the operation's return type
+   * @return the operation's outcome
+   */
+  public <T> T measure(String name, SftpTrace trace, Supplier<T> operation) {
+    final long startRoundTrips = trace.getRoundTrips();
+    final long startTime = nanoTime();
+    String errorType = null;
+    try {
+      return operation.get();
+    } catch (RuntimeException e) {
+      errorType = errorTypeOf(e);
+      throw e;
+    } finally {
+      record(name, nanoTime() - startTime, trace.getRoundTrips() - startRoundTrips, errorType);
+    }
+  }
+
+  /**
+   * Records the time it took to acquire a connection
+   *
+   * @param durationNanos the duration in nanoseconds
+   */
+  public void recordConnectionAcquire(long durationNanos) {
+    connectionAcquires.record(durationNanos, 0, false);
+  }
+
+  /**
+   * @param content an {@link InputStream} with remote content
+   * @return an {@link InputStream} which accounts for the bytes read from {@code content}
+   */
+  public InputStream countRead(InputStream content) {
+    return new ProxyInputStream(content) {
+
+      @Override
+      protected void afterRead(int count) {
+        if (count > 0) {
+          bytesRead.add(count);
+        }
+      }
+    };
+  }
+
+  /**
+   * @param content an {@link InputStream} with content to be uploaded
+   * @return an {@link InputStream} which accounts for the bytes read from {@code content} as written
+   */
+  public InputStream countWritten(InputStream content) {
+    return new ProxyInputStream(content) {
+
+      @Override
+      protected void afterRead(int count) {
+        if (count > 0) {
+          bytesWritten.add(count);
+        }
+      }
+    };
+  }
+
+  /**
+   * @param output an {@link OutputStream} into a remote file
+   * @return an {@link OutputStream} which accounts for the bytes written into {@code output}
+   */
+  public OutputStream countWritten(OutputStream output) {
+    return new ProxyOutputStream(output) {
+
+      @Override
+      protected void afterWrite(int count) {
+        bytesWritten.add(count);
+      }
+    };
+  }
+
+  /**
+   * Exposes these metrics through the platform's MBean server
+   */
+  public synchronized void register() {
+    if (objectName != null) {
+      return;
+    }
+
+    try {
+      ObjectName name = new ObjectName(String.format(OBJECT_NAME_PATTERN, ObjectName.quote(configName)));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+      objectName = name;
+    } catch (JMException e) {
+      LOGGER.warn("Could not register metrics of SFTP config '{}' through JMX: {}", configName, e.getMessage());
+    }
+  }
+
+  /**
+   * Stops exposing these metrics through JMX
+   */
+  public synchronized void unregister() {
+    if (objectName == null) {
+      return;
+    }
+
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      if (server.isRegistered(objectName)) {
+        server.unregisterMBean(objectName);
+      }
+    } catch (JMException e) {
+      LOGGER.debug("Could not unregister metrics of SFTP config '{}'", configName, e);
+    } finally {
+      objectName = null;
+    }
+  }
+
+  @Override
+  public String getConfigName() {
+    return configName;
+  }
+
+  @Override
+  public Map<String, Long> getOperationCounts() {
+    return collect(OperationMetrics::getCount);
+  }
+
+  @Override
+  public Map<String, Long> getOperationErrorCounts() {
+    return collect(OperationMetrics::getErrors);
+  }
+
+  @Override
+  public Map<String, Long> getRoundTrips() {
+    return collect(OperationMetrics::getRoundTrips);
+  }
+
+  @Override
+  public Map<String, Double> getMeanLatencies() {
+    return collect(metrics -> metrics.getLatencies().getMean());
+  }
+
+  @Override
+  public Map<String, Long> getMedianLatencies() {
+    return collect(metrics -> metrics.getLatencies().getValueAtPercentile(50));
+  }
+
+  @Override
+  public Map<String, Long> getP99Latencies() {
+    return collect(metrics -> metrics.getLatencies().getValueAtPercentile(99));
+  }
+
+  @Override
+  public Map<String, Long> getMaxLatencies() {
+    return collect(metrics -> metrics.getLatencies().getMaxValue());
+  }
+
+  @Override
+  public Map<String, Long> getErrorCounts() {
+    Map<String, Long> counts = new TreeMap<>();
+    errors.forEach((type, count) -> counts.put(type, count.sum()));
+    return counts;
+  }
+
+  @Override
+  public long getBytesRead() {
+    return bytesRead.sum();
+  }
+
+  @Override
+  public long getBytesWritten() {
+    return bytesWritten.sum();
+  }
+
+  @Override
+  public long getConnectionAcquireCount() {
+    return connectionAcquires.getCount();
+  }
+
+  @Override
+  public long getConnectionAcquireP99Latency() {
+    return connectionAcquires.getLatencies().getValueAtPercentile(99);
+  }
+
+  @Override
+  public long getConnectionAcquireMaxLatency() {
+    return connectionAcquires.getLatencies().getMaxValue();
+  }
+
+  /**
+   * @param operation the name of an operation
+   * @return a copy of the latencies recorded for the given {@code operation}, in microseconds
+   */
+  public Histogram getLatencies(String operation) {
+    OperationMetrics metrics = operations.get(operation);
+    return metrics != null ? metrics.getLatencies() : new Histogram(3);
+  }
+
+  @Override
+  public void reset() {
+    operations.clear();
+    errors.clear();
+    connectionAcquires = new OperationMetrics();
+    bytesRead.reset();
+    bytesWritten.reset();
+  }
+
+  private void record(String name, long durationNanos, long roundTrips, String errorType) {
+    operations.computeIfAbsent(name, key -> new OperationMetrics()).record(durationNanos, roundTrips, errorType != null);
+    if (errorType != null) {
+      errors.computeIfAbsent(errorType, key -> new LongAdder()).increment();
+    }
+
+    for (SftpMetricsReporter reporter : reporters) {
+      try {
+        reporter.operationCompleted(configName, name, durationNanos, roundTrips, errorType);
+      } catch (Exception e) {
+        LOGGER.debug("Metrics reporter {} failed", reporter.getClass().getName(), e);
+      }
+    }
+  }
+
+  private String errorTypeOf(RuntimeException exception) {
+    if (exception instanceof ModuleException) {
+      Object type = ((ModuleException) exception).getType();
+      if (type instanceof Enum) {
+        return ((Enum<?>) type).name();
+      }
+    }
+    return UNKNOWN_ERROR;
+  }
+
+  private <T> Map<String, T> collect(Function<OperationMetrics, T> value) {
+    Map<String, T> values = new TreeMap<>();
+    operations.forEach((name, metrics) -> values.put(name, value.apply(metrics)));
+    return values;
+  }
+}
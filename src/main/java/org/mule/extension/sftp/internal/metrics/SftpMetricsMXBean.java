@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface through which the {@link SftpMetrics} of a config are exposed over JMX. Maps are keyed by
+ * operation name, except for {@link #getErrorCounts()}, which is keyed by error type. Latencies are expressed in
+ * microseconds.
+ *
+ * @since 1.0
+ */
+public interface SftpMetricsMXBean {
+
+  String getConfigName();
+
+  Map<String, Long> getOperationCounts();
+
+  Map<String, Long> getOperationErrorCounts();
+
+  Map<String, Long> getRoundTrips();
+
+  Map<String, Double> getMeanLatencies();
+
+  Map<String, Long> getMedianLatencies();
+
+  Map<String, Long> getP99Latencies();
+
+  Map<String, Long> getMaxLatencies();
+
+  Map<String, Long> getErrorCounts();
+
+  long getBytesRead();
+
+  long getBytesWritten();
+
+  long getConnectionAcquireCount();
+
+  long getConnectionAcquireP99Latency();
+
+  long getConnectionAcquireMaxLatency();
+
+  /**
+   * Discards every measurement taken so far
+   */
+  void reset();
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.metrics;
+
+/**
+ * The kinds of SFTP protocol requests which are accounted by {@link org.mule.extension.sftp.internal.connection.SftpClient}.
+ * <p>
+ * JSch doesn't report the requests it sends, so they are derived from the client calls which issue them. The amount of
+ * {@link #READDIR}, {@link #READ} and {@link #WRITE} requests depends on the server and on JSch's buffering, so they are
+ * only {@link #isEstimated() estimated} from the amount of entries or bytes transferred and the size of the batches in
+ * which they're usually sent. The rest are counted exactly.
+ *
+ * @since 1.0
+ */
+public enum SftpRequestType {
+
+  STAT, OPENDIR, READDIR(true), REALPATH, OPEN, READ(true), WRITE(true), CLOSE, RENAME, REMOVE, MKDIR, RMDIR;
+
+  /**
+   * The amount of entries which servers usually return on each {@link #READDIR} response
+   */
+  public static final int ENTRIES_PER_READDIR = 100;
+
+  /**
+   * The maximum amount of data carried by each {@link #READ} or {@link #WRITE} request
+   */
+  public static final int BYTES_PER_DATA_REQUEST = 32 * 1024;
+
+  /**
+   * @param entries the amount of listed entries
+   * @return the estimated amount of {@link #READDIR} requests, including the last one which signals the end of the listing
+   */
+  public static long readdirRequests(long entries) {
+    return entries / ENTRIES_PER_READDIR + 1;
+  }
+
+  /**
+   * @param bytes the amount of transferred bytes
+   * @return the estimated amount of {@link #READ} or {@link #WRITE} requests needed to transfer them
+   */
+  public static long dataRequests(long bytes) {
+    return (bytes + BYTES_PER_DATA_REQUEST - 1) / BYTES_PER_DATA_REQUEST;
+  }
+
+  private final boolean estimated;
+
+  SftpRequestType() {
+    this(false);
+  }
+
+  SftpRequestType(boolean estimated) {
+    this.estimated = estimated;
+  }
+
+  /**
+   * @return whether the amount of requests of this type is an estimate rather than an exact count
+   */
+  public boolean isEstimated() {
+    return estimated;
+  }
+}
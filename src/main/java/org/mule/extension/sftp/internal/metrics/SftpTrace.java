@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.metrics;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+/**
+ * Accounts for the SFTP protocol requests issued on behalf of a single connector operation, so that they can be attributed
+ * to it. A trace is bound to the client which executes the operation, and to the channels forked from it, until it's
+ * {@link #close() closed}, at which point a summary is logged at debug level. For example:
+ * <p>
+ * {@code write took 12 ms and ~7 round trips: STAT=2 (3 ms), OPEN=1 (1 ms), WRITE=~2 (6 ms), CLOSE=1 (0 ms), ...}
+ * <p>
+ * Counts of {@link SftpRequestType#isEstimated() estimated} request types, and totals which include them, are prefixed
+ * with {@code ~}.
+ * <p>
+ * Requests may be recorded concurrently.
+ *
+ * @since 1.0
+ */
+public final class SftpTrace implements AutoCloseable {
+
+  private static final Logger LOGGER = getLogger(SftpTrace.class);
+  private static final SftpRequestType[] TYPES = SftpRequestType.values();
+
+  private final String operation;
+  private final Runnable onClose;
+  private final long startTime = nanoTime();
+  private final LongAdder[] counts = new LongAdder[TYPES.length];
+  private final LongAdder[] durations = new LongAdder[TYPES.length];
+  private volatile long duration = -1;
+
+  /**
+   * Creates a new instance
+   *
+   * @param operation the name of the traced operation
+   * @param onClose   invoked when the trace is closed, to unbind it
+   */
+  public SftpTrace(String operation, Runnable onClose) {
+    this.operation = operation;
+    this.onClose = onClose;
+    for (int i = 0; i < TYPES.length; i++) {
+      counts[i] = new LongAdder();
+      durations[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * @return whether traces should be collected even if metrics are disabled, which is the case when their summary is
+   *         going to be logged
+   */
+  public static boolean isLoggingEnabled() {
+    return LOGGER.isDebugEnabled();
+  }
+
+  /**
+   * Records requests of the given {@code type}
+   *
+   * @param type          the {@link SftpRequestType}
+   * @param count         the amount of requests
+   * @param durationNanos the time it took for them to complete
+   */
+  public void record(SftpRequestType type, long count, long durationNanos) {
+    counts[type.ordinal()].add(count);
+    durations[type.ordinal()].add(durationNanos);
+  }
+
+  /**
+   * @return the name of the traced operation
+   */
+  public String getOperation() {
+    return operation;
+  }
+
+  /**
+   * @param type a {@link SftpRequestType}
+   * @return the amount of requests of the given type recorded so far
+   */
+  public long getCount(SftpRequestType type) {
+    return counts[type.ordinal()].sum();
+  }
+
+  /**
+   * @param type a {@link SftpRequestType}
+   * @return the time spent on requests of the given type so far, in nanoseconds
+   */
+  public long getDuration(SftpRequestType type) {
+    return durations[type.ordinal()].sum();
+  }
+
+  /**
+   * @return the amount of requests recorded so far, which is an estimate if any
+   *         {@link SftpRequestType#isEstimated() estimated} requests were recorded
+   */
+  public long getRoundTrips() {
+    long total = 0;
+    for (LongAdder count : counts) {
+      total += count.sum();
+    }
+    return total;
+  }
+
+  /**
+   * Unbinds this trace and logs its summary
+   */
+  @Override
+  public void close() {
+    if (duration >= 0) {
+      return;
+    }
+
+    duration = nanoTime() - startTime;
+    onClose.run();
+    LOGGER.debug("{}", this);
+  }
+
+  private boolean isEstimated() {
+    for (SftpRequestType type : TYPES) {
+      if (type.isEstimated() && getCount(type) > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    long elapsed = duration >= 0 ? duration : nanoTime() - startTime;
+    StringBuilder summary = new StringBuilder(operation).append(" took ").append(NANOSECONDS.toMillis(elapsed))
+        .append(" ms and ").append(isEstimated() ? "~" : "").append(getRoundTrips()).append(" round trips");
+
+    String separator = ": ";
+    for (SftpRequestType type : TYPES) {
+      long count = getCount(type);
+      if (count > 0) {
+        summary.append(separator).append(type).append('=').append(type.isEstimated() ? "~" : "").append(count)
+            .append(" (").append(NANOSECONDS.toMillis(getDuration(type))).append(" ms)");
+        separator = ", ";
+      }
+    }
+
+    return summary.toString();
+  }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.source;
+
+import static java.lang.String.format;
+import static java.lang.Thread.currentThread;
+import static java.util.Comparator.comparing;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.extension.sftp.internal.SftpUtils.normalizePath;
+import static org.mule.runtime.api.meta.model.display.PathModel.Type.DIRECTORY;
+import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_STORE_MANAGER;
+import static org.mule.runtime.extension.api.annotation.param.MediaType.ANY;
+import static org.mule.runtime.extension.api.annotation.param.display.Placement.ADVANCED_TAB;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.extension.file.common.api.FileAttributes;
+import org.mule.extension.file.common.api.lock.NullPathLock;
+import org.mule.extension.sftp.api.SftpFileAttributes;
+import org.mule.extension.sftp.api.SftpFileMatcher;
+import org.mule.extension.sftp.internal.SftpConnector;
+import org.mule.extension.sftp.internal.SftpInputStream;
+import org.mule.extension.sftp.internal.connection.SftpClient;
+import org.mule.extension.sftp.internal.connection.SftpFileSystem;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreManager;
+import org.mule.runtime.api.store.ObjectStoreSettings;
+import org.mule.runtime.extension.api.annotation.Alias;
+import org.mule.runtime.extension.api.annotation.execution.OnError;
+import org.mule.runtime.extension.api.annotation.execution.OnSuccess;
+import org.mule.runtime.extension.api.annotation.execution.OnTerminate;
+import org.mule.runtime.extension.api.annotation.param.Config;
+import org.mule.runtime.extension.api.annotation.param.Connection;
+import org.mule.runtime.extension.api.annotation.param.MediaType;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
+import org.mule.runtime.extension.api.annotation.param.display.Path;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+import org.mule.runtime.extension.api.runtime.source.Source;
+import org.mule.runtime.extension.api.runtime.source.SourceCallback;
+import org.mule.runtime.extension.api.runtime.source.SourceCallbackContext;
+
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.slf4j.Logger;
+
+/**
+ * Polls a directory and triggers a flow for each file which was created or updated since the previous poll.
+ * <p>
+ * Instead of remembering every file it has seen, the listener keeps a {@link SftpWatermark} in a persistent
+ * {@link ObjectStore}: the modification timestamp of the newest file it processed plus the names of the files which share
+ * that timestamp. On each poll the directory listing is streamed and compared against the watermark, so only the files
+ * newer than it are kept, sorted by timestamp and name, and dispatched. Their content is not fetched until the flow reads
+ * it. Because the watermark survives restarts, files which were already processed are not processed again.
+ * <p>
+ * Since flows are executed asynchronously, each poll releases its connection, waits for the flows it triggered to finish
+ * and then advances the watermark over the files which were processed successfully, up to the first one which failed or
+ * didn't finish within the processing timeout. That file and the ones which follow it are dispatched again on the next
+ * poll, even if some of them were processed successfully, so files are processed at least once.
+ * <p>
+ * The watermark is stored in two slots which are written alternately, so that the previous watermark is never removed
+ * before the new one is successfully stored. The newest of them is used.
+ * <p>
+ * Sub directories are not listed and are never dispatched.
+ *
+ * @since 1.0
+ */
+@Alias("listener")
+@DisplayName("On New or Updated File")
+@Summary("Triggers when a file is created or updated in a directory")
+@MediaType(value = ANY, strict = false)
+public class SftpDirectoryListener extends Source<InputStream, SftpFileAttributes> {
+
+  private static final Logger LOGGER = getLogger(SftpDirectoryListener.class);
+  private static final String WATERMARK_STORE_NAME = "sftp-listener-watermarks";
+  private static final String PROCESSING_RESULT_VARIABLE = "processingResult";
+  private static final int WATERMARK_SLOTS = 2;
+
+  @Config
+  private SftpConnector config;
+
+  @Connection
+  private ConnectionProvider<SftpFileSystem> fileSystemProvider;
+
+  @Inject
+  private SchedulerService schedulerService;
+
+  @Inject
+  @Named(OBJECT_STORE_MANAGER)
+  private ObjectStoreManager objectStoreManager;
+
+  /**
+   * The directory on which polled files are contained. Relative paths are resolved against the config's working
+   * directory, which is also the default.
+   */
+  @Parameter
+  @Optional
+  @Path(type = DIRECTORY)
+  private String directory;
+
+  /**
+   * A matcher used to filter the dispatched files. Rejected files don't move the watermark
+   */
+  @Parameter
+  @Optional
+  @DisplayName("File Matching Rules")
+  @Summary("Matcher to filter the dispatched files")
+  private SftpFileMatcher matcher;
+
+  /**
+   * How often to poll the directory, in milliseconds
+   */
+  @Parameter
+  @Optional(defaultValue = "1000")
+  @Summary("How often to poll the directory, in milliseconds")
+  private long pollingFrequency;
+
+  /**
+   * How long to wait for the flow which processes each file to finish, in milliseconds. Files which aren't processed in
+   * time are considered failed, so they are dispatched again on a later poll
+   */
+  @Parameter
+  @Optional(defaultValue = "300000")
+  @Placement(tab = ADVANCED_TAB)
+  @Summary("How long to wait for the flow which processes each file to finish, in milliseconds")
+  private long processingTimeout;
+
+  /**
+   * The key under which the watermark is stored. Defaults to the server's host and port plus the directory's path, so it
+   * needs to be set when several listeners poll the same directory
+   */
+  @Parameter
+  @Optional
+  @Placement(tab = ADVANCED_TAB)
+  @Summary("The key under which the watermark of the polled directory is stored")
+  private String watermarkKey;
+
+  private SourceCallback<InputStream, SftpFileAttributes> sourceCallback;
+  private Predicate<SftpFileAttributes> filter;
+  private ObjectStore<SftpWatermark> watermarkStore;
+  private Scheduler scheduler;
+  private volatile boolean started = false;
+
+  @Override
+  public void onStart(SourceCallback<InputStream, SftpFileAttributes> sourceCallback) throws MuleException {
+    this.sourceCallback = sourceCallback;
+    filter = matcher != null ? matcher.build() : file -> true;
+    watermarkStore = objectStoreManager.getOrCreateObjectStore(WATERMARK_STORE_NAME,
+                                                               ObjectStoreSettings.builder().persistent(true).build());
+
+    started = true;
+    scheduler = schedulerService.ioScheduler();
+    scheduler.scheduleWithFixedDelay(this::poll, 0, pollingFrequency, MILLISECONDS);
+  }
+
+  @Override
+  public void onStop() {
+    started = false;
+    if (scheduler != null) {
+      scheduler.stop();
+      scheduler = null;
+    }
+  }
+
+  private void poll() {
+    if (!started) {
+      return;
+    }
+
+    SftpFileSystem fileSystem;
+    try {
+      fileSystem = fileSystemProvider.connect();
+    } catch (ConnectionException e) {
+      LOGGER.error(format("Could not obtain connection to poll directory '%s'", directory), e);
+      sourceCallback.onConnectionException(e);
+      return;
+    } catch (Exception e) {
+      LOGGER.error(format("Could not obtain connection to poll directory '%s'", directory), e);
+      return;
+    }
+
+    DispatchedFiles dispatchedFiles;
+    try {
+      fileSystem.changeToBaseDir();
+      dispatchedFiles = dispatchNewFiles(fileSystem);
+    } catch (Exception e) {
+      LOGGER.error(format("Found exception polling directory '%s'", directory), e);
+      return;
+    } finally {
+      fileSystemProvider.disconnect(fileSystem);
+    }
+
+    // the flows read the files over connections of their own, so the polling one is released before waiting for them
+    if (dispatchedFiles != null) {
+      try {
+        advanceWatermark(dispatchedFiles);
+      } catch (Exception e) {
+        LOGGER.error(format("Found exception storing the watermark of directory '%s'", directory), e);
+      }
+    }
+  }
+
+  @OnSuccess
+  public void onSuccess(SourceCallbackContext callbackContext) {
+    completeProcessing(callbackContext, true);
+  }
+
+  @OnError
+  public void onError(SourceCallbackContext callbackContext) {
+    completeProcessing(callbackContext, false);
+  }
+
+  @OnTerminate
+  public void onTerminate(SourceCallbackContext callbackContext) {
+    completeProcessing(callbackContext, false);
+  }
+
+  private void completeProcessing(SourceCallbackContext callbackContext, boolean success) {
+    callbackContext.<CompletableFuture<Boolean>>getVariable(PROCESSING_RESULT_VARIABLE)
+        .ifPresent(result -> result.complete(success));
+  }
+
+  private DispatchedFiles dispatchNewFiles(SftpFileSystem fileSystem) throws ObjectStoreException {
+    SftpClient client = fileSystem.getClient();
+    String directoryPath = normalizePath(Paths.get(client.getWorkingDirectory()).resolve(directory != null ? directory : "")
+        .normalize().toString());
+    String key = watermarkKey != null ? watermarkKey : format("%s:%d%s", client.getHost(), client.getPort(), directoryPath);
+
+    final SftpWatermark initialWatermark = retrieveWatermark(key);
+    List<SftpFileAttributes> files = new ArrayList<>();
+    client.list(directoryPath, file -> {
+      if (!file.isDirectory() && initialWatermark.accepts(file) && filter.test(file)) {
+        files.add(file);
+      }
+    });
+
+    if (files.isEmpty()) {
+      return null;
+    }
+
+    files.sort(comparing(SftpFileAttributes::getModifiedTime).thenComparing(FileAttributes::getName));
+    LOGGER.debug("Found {} new or updated files in directory {}", files.size(), directoryPath);
+
+    List<CompletableFuture<Boolean>> results = new ArrayList<>(files.size());
+    for (SftpFileAttributes file : files) {
+      if (!started) {
+        break;
+      }
+
+      results.add(dispatch(fileSystem, file));
+    }
+
+    return new DispatchedFiles(key, initialWatermark, files, results);
+  }
+
+  private void advanceWatermark(DispatchedFiles dispatchedFiles) throws ObjectStoreException {
+    SftpWatermark watermark = dispatchedFiles.initialWatermark;
+    for (int i = 0; i < dispatchedFiles.results.size() && awaitSuccess(dispatchedFiles.results.get(i)); i++) {
+      watermark = watermark.advance(dispatchedFiles.files.get(i));
+    }
+
+    if (watermark != dispatchedFiles.initialWatermark) {
+      storeWatermark(dispatchedFiles.key, watermark);
+    }
+  }
+
+  private CompletableFuture<Boolean> dispatch(SftpFileSystem fileSystem, SftpFileAttributes file) {
+    CompletableFuture<Boolean> result = new CompletableFuture<>();
+    SourceCallbackContext callbackContext = sourceCallback.createContext();
+    callbackContext.addVariable(PROCESSING_RESULT_VARIABLE, result);
+    sourceCallback.handle(createResult(fileSystem, file), callbackContext);
+    return result;
+  }
+
+  /**
+   * Waits up to the {@link #processingTimeout} for the flow which processes a file to finish. When the source is stopped,
+   * the flows which are already running are given the scheduler's graceful shutdown time to finish, after which this
+   * thread is interrupted.
+   *
+   * @return whether the file was processed successfully
+   */
+  private boolean awaitSuccess(CompletableFuture<Boolean> result) {
+    try {
+      return result.get(processingTimeout, MILLISECONDS);
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      return false;
+    } catch (ExecutionException e) {
+      return false;
+    } catch (TimeoutException e) {
+      LOGGER.warn("A file of directory '{}' was not processed within {} ms, so it will be dispatched again", directory,
+                  processingTimeout);
+      return false;
+    }
+  }
+
+  private Result<InputStream, SftpFileAttributes> createResult(SftpFileSystem fileSystem, SftpFileAttributes file) {
+    InputStream payload = SftpInputStream.newLazyInstance(config, file, new NullPathLock());
+    return Result.<InputStream, SftpFileAttributes>builder().output(payload)
+        .mediaType(fileSystem.getFileMessageMediaType(file)).attributes(file).build();
+  }
+
+  private SftpWatermark retrieveWatermark(String key) throws ObjectStoreException {
+    SftpWatermark watermark = SftpWatermark.INITIAL;
+    for (int slot = 0; slot < WATERMARK_SLOTS; slot++) {
+      SftpWatermark stored = retrieveWatermark(key, slot);
+      if (stored != null && stored.isNewerThan(watermark)) {
+        watermark = stored;
+      }
+    }
+    return watermark;
+  }
+
+  private SftpWatermark retrieveWatermark(String key, int slot) throws ObjectStoreException {
+    String slotKey = watermarkSlotKey(key, slot);
+    return watermarkStore.contains(slotKey) ? watermarkStore.retrieve(slotKey) : null;
+  }
+
+  /**
+   * Stores the given {@code watermark} in the slot which doesn't hold the newest one, so that if storing it fails the
+   * previous watermark is still there
+   */
+  private void storeWatermark(String key, SftpWatermark watermark) throws ObjectStoreException {
+    int staleSlot = 0;
+    SftpWatermark staleWatermark = retrieveWatermark(key, 0);
+    for (int slot = 1; slot < WATERMARK_SLOTS && staleWatermark != null; slot++) {
+      SftpWatermark stored = retrieveWatermark(key, slot);
+      if (stored == null || staleWatermark.isNewerThan(stored)) {
+        staleSlot = slot;
+        staleWatermark = stored;
+      }
+    }
+
+    String slotKey = watermarkSlotKey(key, staleSlot);
+    if (staleWatermark != null) {
+      watermarkStore.remove(slotKey);
+    }
+    watermarkStore.store(slotKey, watermark);
+    LOGGER.debug("Watermark of {} moved to {}", key, watermark);
+  }
+
+  private String watermarkSlotKey(String key, int slot) {
+    return key + "#" + slot;
+  }
+
+  /**
+   * The files dispatched by a poll, along with the results of the flows which process them
+   */
+  private static class DispatchedFiles {
+
+    private final String key;
+    private final SftpWatermark initialWatermark;
+    private final List<SftpFileAttributes> files;
+    private final List<CompletableFuture<Boolean>> results;
+
+    private DispatchedFiles(String key, SftpWatermark initialWatermark, List<SftpFileAttributes> files,
+                            List<CompletableFuture<Boolean>> results) {
+      this.key = key;
+      this.initialWatermark = initialWatermark;
+      this.files = files;
+      this.results = results;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.source;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.unmodifiableSet;
+import org.mule.extension.sftp.api.SftpFileAttributes;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The position up to which a {@link SftpDirectoryListener} has processed the files of a directory, made of the
+ * modification timestamp of the newest processed files plus the names of the files which share that timestamp.
+ * <p>
+ * The timestamp is kept as the seconds since the epoch which the server reports, rather than as a local date time, so
+ * it keeps growing when the local clock is set back. Since SFTP servers only report timestamps with a resolution of
+ * seconds, keeping the names allows telling apart files which were modified within the same second as the last
+ * processed ones. Files modified before the timestamp are considered processed. Instances are immutable.
+ *
+ * @since 1.0
+ */
+final class SftpWatermark implements Serializable {
+
+  private static final long serialVersionUID = -2217038519067430112L;
+
+  /**
+   * A watermark which accepts every file
+   */
+  static final SftpWatermark INITIAL = new SftpWatermark(Long.MIN_VALUE, emptySet());
+
+  private final long modifiedTime;
+  private final Set<String> names;
+
+  private SftpWatermark(long modifiedTime, Set<String> names) {
+    this.modifiedTime = modifiedTime;
+    this.names = names;
+  }
+
+  /**
+   * @param file the attributes of a listed file
+   * @return whether the file was created or modified after the files which this watermark accounts for
+   */
+  boolean accepts(SftpFileAttributes file) {
+    long fileModifiedTime = file.getModifiedTime();
+    return fileModifiedTime > modifiedTime || (fileModifiedTime == modifiedTime && !names.contains(file.getName()));
+  }
+
+  /**
+   * @param file the attributes of a processed file
+   * @return a watermark which also accounts for the given {@code file}
+   */
+  SftpWatermark advance(SftpFileAttributes file) {
+    long fileModifiedTime = file.getModifiedTime();
+    if (fileModifiedTime > modifiedTime) {
+      return new SftpWatermark(fileModifiedTime, singleton(file.getName()));
+    } else if (fileModifiedTime == modifiedTime && !names.contains(file.getName())) {
+      Set<String> advancedNames = new HashSet<>(names);
+      advancedNames.add(file.getName());
+      return new SftpWatermark(modifiedTime, unmodifiableSet(advancedNames));
+    }
+
+    return this;
+  }
+
+  /**
+   * @param other another watermark of the same directory
+   * @return whether this watermark accounts for more processed files than the {@code other} one
+   */
+  boolean isNewerThan(SftpWatermark other) {
+    return modifiedTime > other.modifiedTime || (modifiedTime == other.modifiedTime && names.size() > other.names.size());
+  }
+
+  /**
+   * @return the modification time of the newest processed files in seconds since the epoch, or {@link Long#MIN_VALUE} if
+   *         none was processed yet
+   */
+  long getModifiedTime() {
+    return modifiedTime;
+  }
+
+  /**
+   * @return the names of the processed files which were modified at {@link #getModifiedTime()}
+   */
+  Set<String> getNames() {
+    return names;
+  }
+
+  @Override
+  public String toString() {
+    return modifiedTime != Long.MIN_VALUE ? modifiedTime + " " + names : "initial";
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A TCP proxy for testing purposes which emulates a wide area network between the client and a server running on the same
+ * box. It accepts many connections and tunnels each of them to the target host and port, delaying every chunk of data by a
+ * fixed latency plus a random jitter, and optionally capping the bandwidth of each direction.
+ * <p>
+ * Latency is applied in both directions, so the round trip time grows by twice the configured one way latency. Data is
+ * never reordered: a chunk is not delivered before the one that preceded it, even if its jitter was lower. Only about a
+ * bandwidth-delay product of data is kept in flight in each direction, after which the proxy stops reading from the
+ * sender, so that it's slowed down by TCP flow control as it would be by a real link. If stopped, it closes every tunnel.
+ */
+public class LatencyProxyServer {
+
+  private static final Logger logger = LoggerFactory.getLogger(LatencyProxyServer.class);
+  private static final int BUFFER_SIZE = 32 * 1024;
+  private static final int MIN_IN_FLIGHT_CHUNKS = 4;
+  private static final long MAX_IN_FLIGHT_BYTES = 4 * 1024 * 1024;
+  private static final Chunk END_OF_STREAM = new Chunk(new byte[0], 0, 0);
+
+  private final int listenPort;
+  private final int targetPort;
+  private String targetHost = "localhost";
+  private long latencyNanos;
+  private long jitterNanos;
+  private long bytesPerSecond;
+  private ServerSocket serverSocket;
+  private Thread serverThread;
+  private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+
+  public LatencyProxyServer(int listenPort, int targetPort) {
+    this.listenPort = listenPort;
+    this.targetPort = targetPort;
+  }
+
+  public void start() throws IOException {
+    serverSocket = new ServerSocket(listenPort);
+    serverThread = new Thread(() -> {
+      try {
+        while (true) {
+          Socket clientSocket = serverSocket.accept();
+          clientSocket.setTcpNoDelay(true);
+          Socket targetSocket = new Socket(targetHost, targetPort);
+          targetSocket.setTcpNoDelay(true);
+          sockets.addAll(Arrays.asList(clientSocket, targetSocket));
+
+          tunnel(clientSocket, targetSocket, "upstream");
+          tunnel(targetSocket, clientSocket, "downstream");
+        }
+      } catch (SocketException e) {
+        // stop execution when closed from parent
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }, "latency-proxy-acceptor");
+
+    serverThread.start();
+  }
+
+  public void stop() throws Exception {
+    serverSocket.close();
+    serverThread.join();
+
+    for (Socket socket : sockets) {
+      closeQuietly(socket);
+    }
+    sockets.clear();
+  }
+
+  /**
+   * @param millis the round trip time to emulate. Half of it is applied to each direction
+   */
+  public void setRoundTripTime(long millis) {
+    latencyNanos = MILLISECONDS.toNanos(millis) / 2;
+  }
+
+  /**
+   * @param millis the maximum random delay added on top of the latency of each chunk, in each direction
+   */
+  public void setJitter(long millis) {
+    jitterNanos = MILLISECONDS.toNanos(millis);
+  }
+
+  /**
+   * @param bytesPerSecond the maximum bandwidth of each direction of each tunnel, or {@code 0} for no limit
+   */
+  public void setBandwidth(long bytesPerSecond) {
+    this.bytesPerSecond = bytesPerSecond;
+  }
+
+  public void setTargetHost(String targetHost) {
+    this.targetHost = targetHost;
+  }
+
+  private void tunnel(Socket source, Socket target, String direction) throws IOException {
+    BlockingQueue<Chunk> inFlight = new ArrayBlockingQueue<>(getInFlightCapacity());
+    InputStream input = source.getInputStream();
+    OutputStream output = target.getOutputStream();
+
+    Thread reader = new Thread(() -> {
+      long lastDelivery = 0;
+      long linkFreeAt = 0;
+      byte[] buffer = new byte[BUFFER_SIZE];
+      try {
+        for (int read = input.read(buffer); read != -1; read = input.read(buffer)) {
+          long now = nanoTime();
+          long sentAt = now;
+          if (bytesPerSecond > 0) {
+            sentAt = max(now, linkFreeAt);
+            linkFreeAt = sentAt + SECONDS.toNanos(read) / bytesPerSecond;
+          }
+
+          long jitter = jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0;
+          lastDelivery = max(lastDelivery, sentAt + latencyNanos + jitter);
+          inFlight.put(new Chunk(Arrays.copyOf(buffer, read), read, lastDelivery));
+        }
+      } catch (IOException e) {
+        logger.debug("{} reader: {}", direction, e.getMessage());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        try {
+          inFlight.put(END_OF_STREAM);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          inFlight.offer(END_OF_STREAM);
+        }
+      }
+    }, "latency-proxy-" + direction + "-reader");
+
+    Thread writer = new Thread(() -> {
+      try {
+        for (Chunk chunk = inFlight.take(); chunk != END_OF_STREAM; chunk = inFlight.take()) {
+          long wait = chunk.deliverAt - nanoTime();
+          if (wait > 0) {
+            NANOSECONDS.sleep(wait);
+          }
+          output.write(chunk.data, 0, chunk.length);
+          output.flush();
+        }
+      } catch (IOException e) {
+        logger.debug("{} writer: {}", direction, e.getMessage());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        closeQuietly(source);
+        closeQuietly(target);
+        // unblocks the reader, which fails on its next read from the closed socket
+        inFlight.clear();
+      }
+    }, "latency-proxy-" + direction + "-writer");
+
+    reader.setDaemon(true);
+    writer.setDaemon(true);
+    reader.start();
+    writer.start();
+  }
+
+  /**
+   * @return the amount of chunks which fit in the bandwidth-delay product of the emulated link, or in
+   *         {@link #MAX_IN_FLIGHT_BYTES} if the bandwidth is not limited
+   */
+  private int getInFlightCapacity() {
+    long delayNanos = latencyNanos + jitterNanos;
+    long bytes = bytesPerSecond > 0 ? (long) ((double) bytesPerSecond * delayNanos / SECONDS.toNanos(1)) : MAX_IN_FLIGHT_BYTES;
+    return (int) max(MIN_IN_FLIGHT_CHUNKS, min(bytes, MAX_IN_FLIGHT_BYTES) / BUFFER_SIZE);
+  }
+
+  private void closeQuietly(Socket socket) {
+    try {
+      socket.close();
+    } catch (IOException e) {
+      // nothing to do
+    }
+  }
+
+  private static class Chunk {
+
+    private final byte[] data;
+    private final int length;
+    private final long deliverAt;
+
+    private Chunk(byte[] data, int length, long deliverAt) {
+      this.data = data;
+      this.length = length;
+      this.deliverAt = deliverAt;
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+import static org.mule.extension.sftp.AllureConstants.SftpFeature.SFTP_EXTENSION;
+import static org.mule.test.extension.file.common.api.FileTestHarness.HELLO_PATH;
+import static org.mule.test.extension.file.common.api.FileTestHarness.HELLO_WORLD;
+import org.mule.extension.sftp.api.SftpBulkOperationResult;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.qameta.allure.Feature;
+import org.junit.Test;
+
+@Feature(SFTP_EXTENSION)
+public class SftpBulkOperationsTestCase extends CommonSftpConnectorTestCase {
+
+  private static final String SUB_FOLDER = "files/subfolder";
+  private static final String MISSING_PATH = "files/not-there.txt";
+
+  public SftpBulkOperationsTestCase(String name, SftpTestHarness testHarness, String ftpConfigFile) {
+    super(name, testHarness, ftpConfigFile);
+  }
+
+  @Override
+  protected String getConfigFile() {
+    return "sftp-bulk-config.xml";
+  }
+
+  @Override
+  protected void doSetUp() throws Exception {
+    super.doSetUp();
+    testHarness.createHelloWorldFile();
+    testHarness.write("files/other.txt", HELLO_WORLD);
+    testHarness.makeDir(SUB_FOLDER);
+    testHarness.write(SUB_FOLDER + "/nested.txt", HELLO_WORLD);
+  }
+
+  @Test
+  public void getAttributesOfManyFiles() throws Exception {
+    List<SftpBulkOperationResult> results = run("bulkGetAttributes", asList(HELLO_PATH, SUB_FOLDER, MISSING_PATH));
+
+    assertThat(results, hasSize(3));
+    assertSuccessful(results.get(0), HELLO_PATH);
+    assertThat(results.get(0).getAttributes().getSize(), is((long) HELLO_WORLD.length()));
+    assertSuccessful(results.get(1), SUB_FOLDER);
+    assertThat(results.get(1).getAttributes().isDirectory(), is(true));
+    assertFailed(results.get(2), MISSING_PATH, "doesn't exist");
+  }
+
+  @Test
+  public void deleteManyFiles() throws Exception {
+    List<SftpBulkOperationResult> results = run("bulkDelete", asList(HELLO_PATH, SUB_FOLDER, MISSING_PATH, "files/other.txt"));
+
+    assertThat(results, hasSize(4));
+    assertSuccessful(results.get(0), HELLO_PATH);
+    assertSuccessful(results.get(1), SUB_FOLDER);
+    assertFailed(results.get(2), MISSING_PATH, "doesn't exist");
+    assertSuccessful(results.get(3), "files/other.txt");
+
+    assertThat(testHarness.fileExists(HELLO_PATH), is(false));
+    assertThat(testHarness.fileExists("files/other.txt"), is(false));
+    assertThat(testHarness.dirExists(SUB_FOLDER), is(false));
+  }
+
+  @Test
+  public void renameManyFiles() throws Exception {
+    Map<String, String> renames = new LinkedHashMap<>();
+    renames.put(HELLO_PATH, "renamed.json");
+    renames.put("files/other.txt", "renamed-other.txt");
+
+    List<SftpBulkOperationResult> results = rename(renames, false);
+
+    assertThat(results, hasSize(2));
+    assertSuccessful(results.get(0), HELLO_PATH);
+    assertSuccessful(results.get(1), "files/other.txt");
+    assertThat(testHarness.fileExists(HELLO_PATH), is(false));
+    assertThat(readPathAsString("files/renamed.json"), is(HELLO_WORLD));
+    assertThat(readPathAsString("files/renamed-other.txt"), is(HELLO_WORLD));
+  }
+
+  @Test
+  public void renameOntoExistingFileWithoutOverwrite() throws Exception {
+    Map<String, String> renames = new LinkedHashMap<>();
+    renames.put(HELLO_PATH, "other.txt");
+    renames.put(SUB_FOLDER + "/nested.txt", "path/with/parts");
+
+    List<SftpBulkOperationResult> results = rename(renames, false);
+
+    assertFailed(results.get(0), HELLO_PATH, "already exists");
+    assertFailed(results.get(1), SUB_FOLDER + "/nested.txt", "file separator");
+    assertThat(testHarness.fileExists(HELLO_PATH), is(true));
+  }
+
+  @Test
+  public void renameOntoExistingFileWithOverwrite() throws Exception {
+    Map<String, String> renames = new LinkedHashMap<>();
+    renames.put(HELLO_PATH, "other.txt");
+
+    List<SftpBulkOperationResult> results = rename(renames, true);
+
+    assertSuccessful(results.get(0), HELLO_PATH);
+    assertThat(testHarness.fileExists(HELLO_PATH), is(false));
+    assertThat(readPathAsString("files/other.txt"), is(HELLO_WORLD));
+  }
+
+  @Test
+  public void renameOntoExistingDirectoryWithOverwrite() throws Exception {
+    Map<String, String> renames = new LinkedHashMap<>();
+    renames.put(HELLO_PATH, "subfolder");
+    renames.put("files/other.txt", "renamed-other.txt");
+
+    List<SftpBulkOperationResult> results = rename(renames, true);
+
+    assertSuccessful(results.get(0), HELLO_PATH);
+    assertSuccessful(results.get(1), "files/other.txt");
+    assertThat(testHarness.dirExists(SUB_FOLDER), is(false));
+    assertThat(readPathAsString(SUB_FOLDER), is(HELLO_WORLD));
+    assertThat(readPathAsString("files/renamed-other.txt"), is(HELLO_WORLD));
+  }
+
+  private void assertSuccessful(SftpBulkOperationResult result, String path) {
+    assertThat(result.getPath(), is(path));
+    assertThat(result.isSuccessful(), is(true));
+    assertThat(result.getErrorMessage(), is(nullValue()));
+  }
+
+  private void assertFailed(SftpBulkOperationResult result, String path, String message) {
+    assertThat(result.getPath(), is(path));
+    assertThat(result.isSuccessful(), is(false));
+    assertThat(result.getErrorMessage(), is(notNullValue()));
+    assertThat(result.getErrorMessage(), containsString(message));
+  }
+
+  private List<SftpBulkOperationResult> run(String flowName, List<String> paths) throws Exception {
+    return (List<SftpBulkOperationResult>) flowRunner(flowName).withVariable("paths", paths).run().getMessage().getPayload()
+        .getValue();
+  }
+
+  private List<SftpBulkOperationResult> rename(Map<String, String> renames, boolean overwrite) throws Exception {
+    return (List<SftpBulkOperationResult>) flowRunner("bulkRename").withVariable("renames", renames)
+        .withVariable("overwrite", overwrite).run().getMessage().getPayload().getValue();
+  }
+}
@@ -6,26 +6,42 @@
  */
 package org.mule.extension.sftp;
 
+import static com.jcraft.jsch.ChannelSftp.SSH_FX_FAILURE;
 import static com.jcraft.jsch.ChannelSftp.SSH_FX_NO_SUCH_FILE;
 import static com.jcraft.jsch.ChannelSftp.SSH_FX_PERMISSION_DENIED;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.CLOSE;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.OPENDIR;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.READDIR;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.REALPATH;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.RENAME;
+import static org.mule.extension.sftp.internal.metrics.SftpRequestType.STAT;
 import static org.mule.extension.sftp.random.alg.PRNGAlgorithm.NativePRNGNonBlocking;
 
+import org.mule.extension.sftp.internal.connection.KnownDirectories;
 import org.mule.extension.sftp.internal.connection.SftpClient;
+import org.mule.extension.sftp.internal.metrics.SftpTrace;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.tck.size.SmallTest;
 
 import com.jcraft.jsch.ChannelSftp;
 import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.SftpATTRS;
 import com.jcraft.jsch.SftpException;
 
 import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -41,6 +57,11 @@ import org.mockito.runners.MockitoJUnitRunner;
 public class SftpClientTestCase {
 
   private static final String FILE_PATH = "/bla/file.txt";
+  private static final String HOME = "/home/user";
+  private static final String WORKING_DIR = "/bla";
+  private static final long CACHE_TTL = 60000;
+  private static final int CACHE_MAX_ENTRIES = 10;
+  private static final Path FILE = Paths.get(FILE_PATH);
 
   @Rule
   public ExpectedException expectedException = ExpectedException.none();
@@ -54,6 +75,9 @@ public class SftpClientTestCase {
   @Mock
   private ChannelSftp channel;
 
+  @Mock
+  private SftpATTRS attrs;
+
   @InjectMocks
   private SftpClient client = new SftpClient(EMPTY, 0, () -> jsch, NativePRNGNonBlocking);
 
@@ -75,4 +99,174 @@ public class SftpClientTestCase {
     when(channel.stat(any())).thenThrow(new SftpException(SSH_FX_PERMISSION_DENIED, EMPTY));
     client.getAttributes(path);
   }
+
+  @Test
+  public void workingDirectoryIsCached() throws Exception {
+    when(channel.pwd()).thenReturn(HOME);
+
+    assertThat(client.getWorkingDirectory(), is(HOME));
+    assertThat(client.getWorkingDirectory(), is(HOME));
+
+    verify(channel).pwd();
+  }
+
+  @Test
+  public void changeToCurrentWorkingDirectoryIsSkipped() throws Exception {
+    when(channel.pwd()).thenReturn(WORKING_DIR);
+
+    client.changeWorkingDirectory(WORKING_DIR);
+    client.changeWorkingDirectory(WORKING_DIR);
+    client.changeWorkingDirectory(WORKING_DIR);
+
+    verify(channel).cd(WORKING_DIR);
+    assertThat(client.getWorkingDirectory(), is(WORKING_DIR));
+    assertThat(client.getOperationCount(), is(1L));
+  }
+
+  @Test
+  public void changeToAnotherWorkingDirectory() throws Exception {
+    when(channel.pwd()).thenReturn(WORKING_DIR, HOME);
+
+    client.changeWorkingDirectory(WORKING_DIR);
+    client.changeWorkingDirectory(HOME);
+
+    verify(channel).cd(WORKING_DIR);
+    verify(channel).cd(HOME);
+    verify(channel, times(2)).pwd();
+    assertThat(client.getWorkingDirectory(), is(HOME));
+    assertThat(client.getOperationCount(), is(2L));
+  }
+
+  @Test
+  public void requestsAreRecordedIntoTrace() throws Exception {
+    when(channel.pwd()).thenReturn(WORKING_DIR);
+    when(channel.stat(FILE_PATH)).thenReturn(attrs);
+
+    SftpTrace trace = client.startTrace("test");
+    client.changeWorkingDirectory(WORKING_DIR);
+    client.getAttributes(FILE);
+    trace.close();
+
+    assertThat(client.getTrace(), is(nullValue()));
+    assertThat(trace.getCount(REALPATH), is(1L));
+    assertThat(trace.getCount(STAT), is(2L));
+    assertThat(trace.getRoundTrips(), is(3L));
+    assertThat(client.getRequestCount(STAT), is(2L));
+  }
+
+  @Test
+  public void requestsAreNotRecordedIntoClosedTrace() throws Exception {
+    when(channel.stat(FILE_PATH)).thenReturn(attrs);
+
+    SftpTrace trace = client.startTrace("test");
+    trace.close();
+    client.getAttributes(FILE);
+
+    assertThat(trace.getRoundTrips(), is(0L));
+    assertThat(client.getRequestCount(STAT), is(1L));
+  }
+
+  @Test
+  public void listRecordsStatBeforeOpeningDirectory() throws Exception {
+    SftpTrace trace = client.startTrace("list");
+    client.list(WORKING_DIR, file -> {
+    });
+    trace.close();
+
+    assertThat(trace.getCount(STAT), is(1L));
+    assertThat(trace.getCount(OPENDIR), is(1L));
+    assertThat(trace.getCount(READDIR), is(1L));
+    assertThat(trace.getCount(CLOSE), is(1L));
+    assertThat(trace.toString(), containsString("~4 round trips"));
+    assertThat(trace.toString(), containsString("READDIR=~1"));
+  }
+
+  @Test
+  public void renameRecordsSingleRequest() throws Exception {
+    SftpTrace trace = client.startTrace("rename");
+    client.rename(FILE_PATH, FILE_PATH + "2");
+    trace.close();
+
+    assertThat(trace.getCount(RENAME), is(1L));
+    assertThat(trace.getRoundTrips(), is(1L));
+    assertThat(trace.toString(), containsString(" 1 round trips"));
+  }
+
+  @Test
+  public void attributesAreCached() throws Exception {
+    client.setAttributesCache(CACHE_TTL, CACHE_MAX_ENTRIES);
+    when(channel.stat(FILE_PATH)).thenReturn(attrs);
+
+    assertThat(client.getAttributes(FILE), is(notNullValue()));
+    assertThat(client.getAttributes(FILE), is(notNullValue()));
+
+    verify(channel).stat(FILE_PATH);
+  }
+
+  @Test
+  public void cachedAttributesAreInvalidatedOnDelete() throws Exception {
+    client.setAttributesCache(CACHE_TTL, CACHE_MAX_ENTRIES);
+    when(channel.stat(FILE_PATH)).thenReturn(attrs);
+
+    client.getAttributes(FILE);
+    client.deleteFile(FILE_PATH);
+    client.getAttributes(FILE);
+
+    verify(channel, times(2)).stat(FILE_PATH);
+  }
+
+  @Test
+  public void cachedAttributesAreInvalidatedWhenParentIsRenamed() throws Exception {
+    client.setAttributesCache(CACHE_TTL, CACHE_MAX_ENTRIES);
+    when(channel.stat(FILE_PATH)).thenReturn(attrs);
+
+    client.getAttributes(FILE);
+    client.rename(WORKING_DIR, WORKING_DIR + "2");
+    client.getAttributes(FILE);
+
+    verify(channel, times(2)).stat(FILE_PATH);
+  }
+
+  @Test
+  public void siblingAttributesAreKeptWhenCachedFileIsRenamed() throws Exception {
+    client.setAttributesCache(CACHE_TTL, CACHE_MAX_ENTRIES);
+    String siblingPath = WORKING_DIR + "/sibling.txt";
+    when(channel.stat(FILE_PATH)).thenReturn(attrs);
+    when(channel.stat(siblingPath)).thenReturn(attrs);
+
+    client.getAttributes(FILE);
+    client.getAttributes(Paths.get(siblingPath));
+    client.rename(FILE_PATH, FILE_PATH + "2");
+    client.getAttributes(FILE);
+    client.getAttributes(Paths.get(siblingPath));
+
+    verify(channel, times(2)).stat(FILE_PATH);
+    verify(channel).stat(siblingPath);
+  }
+
+  @Test
+  public void knownDirectoryIsNotCreatedAgain() throws Exception {
+    client.setKnownDirectories(new KnownDirectories(CACHE_MAX_ENTRIES));
+
+    assertThat(client.tryMkdir(WORKING_DIR), is(true));
+    assertThat(client.tryMkdir(WORKING_DIR), is(true));
+
+    verify(channel).mkdir(WORKING_DIR);
+    assertThat(client.isKnownDirectory(WORKING_DIR), is(true));
+  }
+
+  @Test
+  public void tryMkdirWithMissingParent() throws Exception {
+    doThrow(new SftpException(SSH_FX_NO_SUCH_FILE, "No such file")).when(channel).mkdir(FILE_PATH);
+    assertThat(client.tryMkdir(FILE_PATH), is(false));
+  }
+
+  @Test
+  public void tryMkdirOnExistingDirectory() throws Exception {
+    doThrow(new SftpException(SSH_FX_FAILURE, "Failure")).when(channel).mkdir(WORKING_DIR);
+    when(channel.stat(WORKING_DIR)).thenReturn(attrs);
+    when(attrs.isDir()).thenReturn(true);
+
+    assertThat(client.tryMkdir(WORKING_DIR), is(true));
+  }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+import static org.mule.extension.sftp.AllureConstants.SftpFeature.SFTP_EXTENSION;
+import static org.mule.runtime.core.api.util.IOUtils.toByteArray;
+import org.mule.extension.sftp.api.SftpFileAttributes;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.lifecycle.Startable;
+import org.mule.runtime.api.lifecycle.Stoppable;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.qameta.allure.Feature;
+import org.junit.Test;
+
+@Feature(SFTP_EXTENSION)
+public class SftpDirectoryListenerTestCase extends CommonSftpConnectorTestCase {
+
+  private static final String LISTENED_DIRECTORY = "listened";
+  private static final String LISTENER_FLOW = "listen";
+  private static final long PROBE_TIMEOUT = 10000;
+  private static final long PROBE_FREQUENCY = 100;
+
+  public SftpDirectoryListenerTestCase(String name, SftpTestHarness testHarness, String ftpConfigFile) {
+    super(name, testHarness, ftpConfigFile);
+  }
+
+  @Override
+  protected String getConfigFile() {
+    return "sftp-listener-config.xml";
+  }
+
+  @Override
+  protected void doSetUp() throws Exception {
+    super.doSetUp();
+    TestProcessor.clear();
+    testHarness.makeDir(LISTENED_DIRECTORY);
+  }
+
+  @Override
+  protected void doTearDown() throws Exception {
+    super.doTearDown();
+    TestProcessor.clear();
+  }
+
+  @Test
+  public void newFilesAreDispatched() throws Exception {
+    writeFile("a.txt", "a", 1000);
+    writeFile("b.txt", "b", 2000);
+
+    startListener();
+
+    assertDispatched("a.txt:a", "b.txt:b");
+  }
+
+  @Test
+  public void updatedFileIsDispatchedAgain() throws Exception {
+    writeFile("a.txt", "a", 1000);
+    startListener();
+    assertDispatched("a.txt:a");
+
+    writeFile("a.txt", "a", 2000);
+
+    assertDispatched("a.txt:a", "a.txt:aa");
+  }
+
+  @Test
+  public void processedFilesAreNotDispatchedAfterRestart() throws Exception {
+    writeFile("a.txt", "a", 1000);
+    startListener();
+    assertDispatched("a.txt:a");
+
+    stopListener();
+    TestProcessor.clear();
+    writeFile("b.txt", "b", 2000);
+    startListener();
+
+    assertDispatched("b.txt:b");
+  }
+
+  private void writeFile(String name, String content, long modifiedSeconds) throws Exception {
+    testHarness.write(LISTENED_DIRECTORY, name, content);
+    Path file = Paths.get(testHarness.getRootDirectory(), LISTENED_DIRECTORY, name);
+    Files.setLastModifiedTime(file, FileTime.fromMillis(modifiedSeconds * 1000));
+  }
+
+  private void startListener() throws Exception {
+    ((Startable) getFlowConstruct(LISTENER_FLOW)).start();
+  }
+
+  private void stopListener() throws Exception {
+    ((Stoppable) getFlowConstruct(LISTENER_FLOW)).stop();
+  }
+
+  private void assertDispatched(String... files) {
+    new PollingProber(PROBE_TIMEOUT, PROBE_FREQUENCY).check(new JUnitLambdaProbe(() -> {
+      assertThat(TestProcessor.getDispatchedFiles(), contains(files));
+      return true;
+    }));
+  }
+
+  public static class TestProcessor implements Processor {
+
+    private static List<String> dispatchedFiles = new CopyOnWriteArrayList<>();
+
+    static List<String> getDispatchedFiles() {
+      return dispatchedFiles;
+    }
+
+    static void clear() {
+      dispatchedFiles.clear();
+    }
+
+    @Override
+    public CoreEvent process(CoreEvent event) throws MuleException {
+      SftpFileAttributes attributes = (SftpFileAttributes) event.getMessage().getAttributes().getValue();
+      Object payload = event.getMessage().getPayload().getValue();
+      InputStream content = payload instanceof CursorStreamProvider ? ((CursorStreamProvider) payload).openCursor()
+          : (InputStream) payload;
+      dispatchedFiles.add(attributes.getName() + ":" + new String(toByteArray(content)));
+
+      return event;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp;
+
+import static java.lang.System.nanoTime;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mule.extension.sftp.AllureConstants.SftpFeature.SFTP_EXTENSION;
+import org.mule.tck.junit4.rule.DynamicPort;
+
+import io.qameta.allure.Feature;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Reads a file through a {@link LatencyProxyServer} with a connection which keeps a single read request in flight and
+ * with one which keeps {@code bulkRequests} of them, to verify that the read-ahead window hides the round trip time.
+ */
+@Feature(SFTP_EXTENSION)
+public class SftpLatencyThroughputTestCase extends AbstractSftpConnectorTestCase {
+
+  private static final long ROUND_TRIP_MILLIS = 50;
+  private static final String WARM_UP_FILE_NAME = "warm-up.txt";
+  private static final String FILE_NAME = "latency.txt";
+  private static final int FILE_SIZE = 1024 * 1024;
+
+  @Rule
+  public final SftpTestHarness testHarness = new SftpTestHarness();
+
+  @Rule
+  public DynamicPort latencyProxyPort = new DynamicPort("latencyProxyPort");
+
+  private final LatencyProxyServer proxyServer;
+
+  public SftpLatencyThroughputTestCase() throws Exception {
+    proxyServer = new LatencyProxyServer(latencyProxyPort.getNumber(), testHarness.getServerPort());
+    proxyServer.setRoundTripTime(ROUND_TRIP_MILLIS);
+  }
+
+  @Override
+  protected void doSetUpBeforeMuleContextCreation() throws Exception {
+    super.doSetUpBeforeMuleContextCreation();
+    proxyServer.start();
+  }
+
+  @Override
+  protected void doTearDownAfterMuleContextDispose() throws Exception {
+    proxyServer.stop();
+    super.doTearDownAfterMuleContextDispose();
+  }
+
+  @Override
+  protected String getConfigFile() {
+    return "sftp-latency-config.xml";
+  }
+
+  @Test
+  public void bulkRequestsHideRoundTripTime() throws Exception {
+    String content = randomAlphanumeric(FILE_SIZE);
+    testHarness.write(WARM_UP_FILE_NAME, "warm up");
+    testHarness.write(FILE_NAME, content);
+
+    long singleRequestNanos = timeRead("readSingleRequest", content);
+    long bulkRequestsNanos = timeRead("readBulkRequests", content);
+
+    // one request in flight takes a round trip per 32KB, while the bulk window grows to cover the file in a few of them
+    assertThat(bulkRequestsNanos, lessThan(singleRequestNanos / 2));
+  }
+
+  private long timeRead(String flowName, String expectedContent) throws Exception {
+    // the connection is pooled by the first read, so that the handshake is not timed
+    flowRunner(flowName).withVariable("path", WARM_UP_FILE_NAME).run();
+
+    final long startTime = nanoTime();
+    String content = (String) flowRunner(flowName).withVariable("path", FILE_NAME).run().getMessage().getPayload().getValue();
+    long elapsed = nanoTime() - startTime;
+
+    assertThat(content, equalTo(expectedContent));
+    return elapsed;
+  }
+}
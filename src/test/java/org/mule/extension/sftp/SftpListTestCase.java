@@ -12,6 +12,7 @@ import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
 import static org.mule.extension.file.common.api.exceptions.FileError.ILLEGAL_PATH;
@@ -25,6 +26,9 @@ import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -37,6 +41,7 @@ public class SftpListTestCase extends CommonSftpConnectorTestCase {
 
   private static final String TEST_FILE_PATTERN = "test-file-%d.html";
   private static final String SUB_DIRECTORY_NAME = "subDirectory";
+  private static final String LINKED_DIRECTORY_NAME = "linkedDirectory";
   private static final String CONTENT = "foo";
 
   public SftpListTestCase(String name, SftpTestHarness testHarness, String ftpConfigFile) {
@@ -128,6 +133,20 @@ public class SftpListTestCase extends CommonSftpConnectorTestCase {
     assertThat(contents.get(1), is(CONTENT));
   }
 
+  @Test
+  public void listRecursiveFollowsLinkedDirectory() throws Exception {
+    Path root = Paths.get(testHarness.getRootDirectory());
+    Files.createSymbolicLink(root.resolve(LINKED_DIRECTORY_NAME), root.resolve(SUB_DIRECTORY_NAME));
+
+    List<Message> messages = doList(".", true);
+
+    assertThat(messages, hasSize(11));
+    List<String> linkedFiles = messages.stream().map(message -> (FileAttributes) message.getAttributes().getValue())
+        .filter(attributes -> attributes.getPath().contains(LINKED_DIRECTORY_NAME + "/"))
+        .map(FileAttributes::getName).collect(toList());
+    assertThat(linkedFiles, containsInAnyOrder(format(TEST_FILE_PATTERN, 5), format(TEST_FILE_PATTERN, 6)));
+  }
+
   private boolean assertListedFiles(List<Message> messages) throws Exception {
     boolean directoryWasFound = false;
 
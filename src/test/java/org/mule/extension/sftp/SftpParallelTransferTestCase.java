@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp;
+
+import static java.util.Collections.singletonList;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+import static org.mule.extension.file.common.api.FileWriteMode.OVERWRITE;
+import static org.mule.extension.file.common.api.exceptions.FileError.FILE_LOCK;
+import static org.mule.extension.sftp.AllureConstants.SftpFeature.SFTP_EXTENSION;
+import static org.mule.extension.sftp.SftpTestHarness.AuthType.USER_PASSWORD;
+import org.mule.extension.file.common.api.exceptions.FileLockedException;
+import org.mule.runtime.api.message.Message;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.List;
+
+import io.qameta.allure.Feature;
+import org.junit.Test;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Runs the operations which spread their work over several channels with a connection which enables
+ * {@code parallelChannels} and lowers {@code parallelTransferThreshold} so that the test files go through those paths
+ */
+@Feature(SFTP_EXTENSION)
+public class SftpParallelTransferTestCase extends CommonSftpConnectorTestCase {
+
+  private static final String SFTP_PARALLEL_CONNECTION_XML = "sftp-parallel-connection-config.xml";
+  private static final String LARGE_FILE_NAME = "large.txt";
+  private static final int LARGE_FILE_SIZE = 4 * 1024 * 1024;
+  private static final String TREE_DIRECTORY = "tree";
+  private static final String CONTENT = "foo";
+  private static final int DIRECTORIES = 3;
+  private static final int FILES_PER_DIRECTORY = 4;
+
+  @Parameters(name = "{0}")
+  public static Collection<Object[]> data() {
+    return singletonList(new Object[] {"sftp-parallel", new SftpTestHarness(USER_PASSWORD), SFTP_PARALLEL_CONNECTION_XML});
+  }
+
+  public SftpParallelTransferTestCase(String name, SftpTestHarness testHarness, String ftpConfigFile) {
+    super(name, testHarness, ftpConfigFile);
+  }
+
+  @Override
+  protected String getConfigFile() {
+    return "sftp-parallel-transfer-config.xml";
+  }
+
+  @Test
+  public void readLargeFile() throws Exception {
+    String content = randomAlphanumeric(LARGE_FILE_SIZE);
+    testHarness.write(LARGE_FILE_NAME, content);
+
+    assertThat(readPathAsString(LARGE_FILE_NAME), equalTo(content));
+  }
+
+  @Test
+  public void writeLargeFile() throws Exception {
+    String content = randomAlphanumeric(LARGE_FILE_SIZE);
+    doWrite(LARGE_FILE_NAME, content, OVERWRITE, false);
+
+    assertThat(readPathAsString(LARGE_FILE_NAME), equalTo(content));
+  }
+
+  @Test
+  public void listTree() throws Exception {
+    createTree(TREE_DIRECTORY);
+
+    List<Message> messages = (List<Message>) flowRunner("list").withVariable("path", TREE_DIRECTORY).run().getMessage()
+        .getPayload().getValue();
+
+    assertThat(messages, hasSize(DIRECTORIES + DIRECTORIES * FILES_PER_DIRECTORY));
+  }
+
+  @Test
+  public void listTreeFollowsLinkedDirectory() throws Exception {
+    createTree(TREE_DIRECTORY);
+    Path tree = Paths.get(testHarness.getRootDirectory(), TREE_DIRECTORY);
+    Files.createSymbolicLink(tree.resolve("linked"), tree.resolve("dir-0"));
+
+    List<Message> messages = (List<Message>) flowRunner("list").withVariable("path", TREE_DIRECTORY).run().getMessage()
+        .getPayload().getValue();
+
+    assertThat(messages, hasSize(DIRECTORIES + DIRECTORIES * FILES_PER_DIRECTORY + 1 + FILES_PER_DIRECTORY));
+  }
+
+  @Test
+  public void deleteTree() throws Exception {
+    createTree(TREE_DIRECTORY);
+
+    flowRunner("delete").withVariable("path", TREE_DIRECTORY).run();
+
+    assertThat(testHarness.dirExists(TREE_DIRECTORY), is(false));
+  }
+
+  @Test
+  public void deleteTreeWithLockedFileReportsLock() throws Exception {
+    createTree(TREE_DIRECTORY);
+    testHarness.expectedError().expectError(NAMESPACE, FILE_LOCK.getType(), FileLockedException.class, "locked");
+
+    flowRunner("deleteWithLockedFile").withVariable("path", TREE_DIRECTORY)
+        .withVariable("locked", filePath(TREE_DIRECTORY, 0, 0)).run();
+  }
+
+  @Test
+  public void copyTree() throws Exception {
+    createTree(TREE_DIRECTORY);
+    testHarness.makeDir("target");
+
+    flowRunner("copy").withVariable("source", TREE_DIRECTORY).withVariable("target", "target").run();
+
+    for (int i = 0; i < DIRECTORIES; i++) {
+      for (int j = 0; j < FILES_PER_DIRECTORY; j++) {
+        assertThat(readPathAsString(filePath("target/" + TREE_DIRECTORY, i, j)), equalTo(CONTENT));
+      }
+    }
+  }
+
+  private void createTree(String root) throws Exception {
+    testHarness.makeDir(root);
+    for (int i = 0; i < DIRECTORIES; i++) {
+      testHarness.makeDir(root + "/dir-" + i);
+      for (int j = 0; j < FILES_PER_DIRECTORY; j++) {
+        testHarness.write(filePath(root, i, j), CONTENT);
+      }
+    }
+  }
+
+  private String filePath(String root, int directory, int file) {
+    return root + "/dir-" + directory + "/file-" + file + ".txt";
+  }
+}
@@ -6,6 +6,7 @@
  */
 package org.mule.extension.sftp;
 
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -30,6 +31,9 @@ import org.junit.Test;
 @Feature(SFTP_EXTENSION)
 public class SftpReadTestCase extends CommonSftpConnectorTestCase {
 
+  private static final String LARGE_FILE_NAME = "large.txt";
+  private static final int LARGE_FILE_SIZE = 4 * 1024 * 1024;
+
   public SftpReadTestCase(String name, SftpTestHarness testHarness, String ftpConfigFile) {
     super(name, testHarness, ftpConfigFile);
   }
@@ -72,6 +76,14 @@ public class SftpReadTestCase extends CommonSftpConnectorTestCase {
     assertThat(new String(readContent), is(HELLO_WORLD));
   }
 
+  @Test
+  public void readLargeFile() throws Exception {
+    String content = randomAlphanumeric(LARGE_FILE_SIZE);
+    testHarness.write(LARGE_FILE_NAME, content);
+
+    assertThat(readPathAsString(LARGE_FILE_NAME), equalTo(content));
+  }
+
   @Test
   public void readWithForcedMimeType() throws Exception {
     CoreEvent event = flowRunner("readWithForcedMimeType").withVariable("path", HELLO_PATH).run();
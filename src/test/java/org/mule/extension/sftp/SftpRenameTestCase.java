@@ -9,12 +9,14 @@ package org.mule.extension.sftp;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mule.extension.file.common.api.exceptions.FileError.FILE_ALREADY_EXISTS;
+import static org.mule.extension.file.common.api.exceptions.FileError.FILE_LOCK;
 import static org.mule.extension.file.common.api.exceptions.FileError.ILLEGAL_PATH;
 import static org.mule.extension.sftp.AllureConstants.SftpFeature.SFTP_EXTENSION;
 import static org.mule.test.extension.file.common.api.FileTestHarness.HELLO_FILE_NAME;
 import static org.mule.test.extension.file.common.api.FileTestHarness.HELLO_PATH;
 import static org.mule.test.extension.file.common.api.FileTestHarness.HELLO_WORLD;
 import org.mule.extension.file.common.api.exceptions.FileAlreadyExistsException;
+import org.mule.extension.file.common.api.exceptions.FileLockedException;
 import org.mule.extension.file.common.api.exceptions.IllegalPathException;
 
 import java.nio.file.Paths;
@@ -98,6 +100,16 @@ public class SftpRenameTestCase extends CommonSftpConnectorTestCase {
     assertRenamedFile();
   }
 
+  @Test
+  public void lockedTargetIsNotOverwritten() throws Exception {
+    testHarness.expectedError().expectError(NAMESPACE, FILE_LOCK.getType(), FileLockedException.class, "locked");
+    final String sourceFile = "renameme.txt";
+    testHarness.write(sourceFile, "rename me");
+    testHarness.write(RENAME_TO, "I was here first");
+
+    doRename("renameOverLockedTarget", sourceFile, RENAME_TO, true);
+  }
+
   private void assertRenamedFile() throws Exception {
     final String targetPath =
         Paths.get(testHarness.getWorkingDirectory()).resolve(HELLO_PATH).getParent().resolve(RENAME_TO).toString();
@@ -7,6 +7,7 @@
 package org.mule.extension.sftp;
 
 import static java.nio.charset.Charset.availableCharsets;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -35,6 +36,8 @@ import org.junit.Test;
 public class SftpWriteTestCase extends CommonSftpConnectorTestCase {
 
   private static final String TEMP_DIRECTORY = "files";
+  private static final String LARGE_FILE_NAME = "large.txt";
+  private static final int LARGE_FILE_SIZE = 4 * 1024 * 1024;
 
   public SftpWriteTestCase(String name, SftpTestHarness testHarness, String ftpConfigFile) {
     super(name, testHarness, ftpConfigFile);
@@ -126,6 +129,17 @@ public class SftpWriteTestCase extends CommonSftpConnectorTestCase {
     assertThat(event.getMessage().getPayload().getValue(), equalTo(HELLO_WORLD));
   }
 
+  @Test
+  public void overwriteLargeFile() throws Exception {
+    testHarness.write(LARGE_FILE_NAME, randomAlphanumeric(LARGE_FILE_SIZE * 2));
+    doWriteLargeFile(OVERWRITE);
+  }
+
+  @Test
+  public void createNewLargeFile() throws Exception {
+    doWriteLargeFile(CREATE_NEW);
+  }
+
   @Test
   public void writeStaticContent() throws Exception {
     testHarness.makeDir(TEMP_DIRECTORY);
@@ -154,6 +168,13 @@ public class SftpWriteTestCase extends CommonSftpConnectorTestCase {
     assertThat(Arrays.equals(toByteArray(content), HELLO_WORLD.getBytes(customEncoding)), is(true));
   }
 
+  private void doWriteLargeFile(FileWriteMode mode) throws Exception {
+    String content = randomAlphanumeric(LARGE_FILE_SIZE);
+    doWrite(LARGE_FILE_NAME, content, mode, false);
+
+    assertThat(toString(readPath(LARGE_FILE_NAME)), is(content));
+  }
+
   private void doWriteNotExistingFileWithCreatedParent(FileWriteMode mode) throws Exception {
     testHarness.makeDir(TEMP_DIRECTORY);
     String path = Paths.get(testHarness.getWorkingDirectory(), TEMP_DIRECTORY, "a/b/test.txt").toString();
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import org.mule.extension.file.common.api.FileAttributes;
+import org.mule.extension.file.common.api.FileConnectorConfig;
+import org.mule.extension.file.common.api.FileWriteMode;
+import org.mule.extension.sftp.internal.command.SftpCopyCommand;
+import org.mule.extension.sftp.internal.connection.SftpClient;
+import org.mule.extension.sftp.internal.connection.SftpFileSystem;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class SftpCopyDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String CONTENT = "Hello World!";
+  private static final String SOURCE_PATH = "/source.txt";
+  private static final Path TARGET = Paths.get("/target.txt");
+  private static final String ENCODING = "UTF-8";
+
+  @Mock
+  private SftpFileSystem fileSystem;
+
+  @Mock
+  private SftpFileSystem forkedFileSystem;
+
+  @Mock
+  private SftpClient client;
+
+  @Mock
+  private FileConnectorConfig config;
+
+  @Mock
+  private FileAttributes source;
+
+  private AbstractSftpCopyDelegate delegate;
+
+  @Before
+  public void setUp() throws Exception {
+    when(fileSystem.getClient()).thenReturn(client);
+    when(fileSystem.fork()).thenReturn(forkedFileSystem);
+    when(fileSystem.retrieveFileContent(source)).thenReturn(new ByteArrayInputStream(CONTENT.getBytes()));
+    when(client.isCopyOverSameSession()).thenReturn(true);
+    when(client.getWorkingDirectory()).thenReturn("/");
+    when(source.getPath()).thenReturn(SOURCE_PATH);
+    when(config.getDefaultWriteEncoding()).thenReturn(ENCODING);
+
+    delegate = new AbstractSftpCopyDelegate(new SftpCopyCommand(fileSystem, client), fileSystem) {
+
+      @Override
+      protected void copyDirectory(FileConnectorConfig config, Path sourcePath, Path target, boolean overwrite,
+                                   SftpFileSystem writerConnection) {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Test
+  public void copyIsWrittenOverForkedChannel() throws Exception {
+    StringBuilder written = new StringBuilder();
+    doAnswer(invocation -> {
+      written.append(IOUtils.toString((InputStream) invocation.getArguments()[1]));
+      return null;
+    }).when(forkedFileSystem).write(eq(TARGET.toString()), any(InputStream.class), eq(FileWriteMode.OVERWRITE), eq(false),
+                                    eq(true), eq(ENCODING));
+
+    delegate.doCopy(config, source, TARGET, true);
+
+    assertThat(written.toString(), is(CONTENT));
+    verify(fileSystem, never()).write(anyString(), any(InputStream.class), any(FileWriteMode.class), anyBoolean(),
+                                      anyBoolean(), eq(ENCODING));
+    verify(forkedFileSystem).disconnect();
+  }
+
+  @Test
+  public void forkedChannelIsClosedWhenCopyFails() throws Exception {
+    MuleRuntimeException failure = new MuleRuntimeException(createStaticMessage("Write failed"));
+    doThrow(failure).when(forkedFileSystem).write(anyString(), any(InputStream.class), any(FileWriteMode.class),
+                                                  anyBoolean(), anyBoolean(), eq(ENCODING));
+
+    try {
+      delegate.doCopy(config, source, TARGET, true);
+      fail("Copy should have failed");
+    } catch (Exception e) {
+      verify(forkedFileSystem).disconnect();
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.connection;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.extension.sftp.api.SftpFileAttributes;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncSftpClientTestCase extends AbstractMuleTestCase {
+
+  private static final Path FILE = Paths.get("/bla/file.txt");
+
+  @Mock
+  private SftpClient client;
+
+  @Mock
+  private SftpClient channel;
+
+  @Mock
+  private SftpFileAttributes attributes;
+
+  private AsyncSftpClient asyncClient;
+
+  @Before
+  public void setUp() throws Exception {
+    when(client.fork()).thenReturn(channel);
+    when(channel.isConnected()).thenReturn(true);
+    asyncClient = new AsyncSftpClient(client, 1);
+  }
+
+  @After
+  public void tearDown() {
+    asyncClient.close();
+  }
+
+  @Test
+  public void operationIsExecutedOnForkedChannel() throws Exception {
+    when(channel.getAttributes(FILE)).thenReturn(attributes);
+
+    assertThat(asyncClient.getAttributes(FILE).get(5, SECONDS), is(sameInstance(attributes)));
+    verify(channel).getAttributes(FILE);
+  }
+
+  @Test
+  public void failedOperationCompletesExceptionally() throws Exception {
+    IOException failure = new IOException("denied");
+    CompletableFuture<Object> future = asyncClient.submit(forked -> {
+      throw failure;
+    });
+
+    try {
+      future.get(5, SECONDS);
+      fail("Operation should have failed");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), is(sameInstance(failure)));
+    }
+  }
+
+  @Test
+  public void pendingOperationsAreCompletedOnClose() throws Exception {
+    CountDownLatch executing = new CountDownLatch(1);
+    CountDownLatch blocked = new CountDownLatch(1);
+    CompletableFuture<Object> running = asyncClient.submit(forked -> {
+      executing.countDown();
+      blocked.await();
+      return null;
+    });
+    executing.await(5, SECONDS);
+    CompletableFuture<SftpFileAttributes> queued = asyncClient.getAttributes(FILE);
+
+    asyncClient.close();
+
+    assertFailed(running, Exception.class);
+    assertFailed(queued, MuleRuntimeException.class);
+  }
+
+  @Test
+  public void operationSubmittedAfterCloseFails() throws Exception {
+    asyncClient.close();
+    assertFailed(asyncClient.getAttributes(FILE), Exception.class);
+  }
+
+  private void assertFailed(CompletableFuture<?> future, Class<? extends Throwable> failureType) throws Exception {
+    try {
+      future.get(5, SECONDS);
+      fail("Operation should have failed");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), is(instanceOf(failureType)));
+    }
+  }
+}
@@ -9,8 +9,14 @@ package org.mule.extension.sftp.internal.connection;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.commons.io.FileUtils.write;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.mockito.ArgumentCaptor.forClass;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.extension.sftp.SftpServer.PASSWORD;
@@ -25,6 +31,7 @@ import static org.mule.extension.sftp.random.alg.PRNGAlgorithm.NativePRNGNonBloc
 import static org.mule.extension.sftp.random.alg.PRNGAlgorithm.SHA1PRNG;
 
 import java.io.File;
+import java.nio.file.Paths;
 import java.util.Properties;
 
 import org.junit.Before;
@@ -35,6 +42,7 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mule.extension.file.common.api.lock.PathLock;
 import org.mule.extension.sftp.internal.SftpConnector;
 import org.mule.extension.sftp.random.alg.PRNGAlgorithm;
 import org.mule.tck.junit4.AbstractMuleTestCase;
@@ -53,6 +61,9 @@ public class SftpConnectionProviderTestCase extends AbstractMuleTestCase {
   private static final String HOST = "localhost";
   private static final int TIMEOUT = 10;
   private static final String PASSPHRASE = "francis";
+  private static final int BULK_REQUESTS = 64;
+  private static final int MAX_CHANNELS_PER_SESSION = 2;
+  private static final long REPLENISH_TIMEOUT = 5000;
 
   private File hostFile;
   private File identityFile;
@@ -185,6 +196,90 @@ public class SftpConnectionProviderTestCase extends AbstractMuleTestCase {
     assertThat(properties.getProperty(STRICT_HOST_KEY_CHECKING), equalTo("no"));
   }
 
+  @Test
+  public void bulkRequests() throws Exception {
+    provider.setBulkRequests(BULK_REQUESTS);
+    provider.connect();
+
+    verify(channel).setBulkRequests(BULK_REQUESTS);
+  }
+
+  @Test
+  public void sessionIsSharedAmongConnections() throws Exception {
+    provider.setMaxChannelsPerSession(MAX_CHANNELS_PER_SESSION);
+    when(session.isConnected()).thenReturn(true);
+
+    provider.connect();
+    provider.connect();
+
+    verify(jsch).getSession(USERNAME, HOST);
+    verify(session).connect();
+    verify(session, times(2)).openChannel("sftp");
+  }
+
+  @Test
+  public void newSessionIsOpenedWhenMaxChannelsPerSessionIsReached() throws Exception {
+    provider.setMaxChannelsPerSession(MAX_CHANNELS_PER_SESSION);
+    when(session.isConnected()).thenReturn(true);
+
+    for (int i = 0; i <= MAX_CHANNELS_PER_SESSION; i++) {
+      provider.connect();
+    }
+
+    verify(jsch, times(2)).getSession(USERNAME, HOST);
+  }
+
+  @Test
+  public void idleConnectionsAreEstablishedOnStart() throws Exception {
+    provider.setMinIdleConnections(1);
+    when(session.isConnected()).thenReturn(true);
+    when(channel.isConnected()).thenReturn(true);
+
+    try {
+      provider.start();
+      verify(session, timeout(REPLENISH_TIMEOUT)).connect();
+
+      provider.connect();
+      verify(session, timeout(REPLENISH_TIMEOUT).times(2)).connect();
+    } finally {
+      provider.stop();
+    }
+
+    assertThat(provider.getHandshakeLatency().getCount(), greaterThanOrEqualTo(1L));
+    assertThat(provider.getAcquireLatency().getCount(), equalTo(1L));
+  }
+
+  @Test
+  public void inMemoryLocksAreSharedAmongConnections() throws Exception {
+    provider.setInMemoryLocks(true);
+    PathLock lock = provider.connect().createLock(Paths.get("/files/hello.json"));
+    PathLock otherLock = provider.connect().createLock(Paths.get("/files/../files/hello.json"));
+
+    assertThat(lock.tryLock(), is(true));
+    assertThat(otherLock.isLocked(), is(true));
+    assertThat(otherLock.tryLock(), is(false));
+
+    lock.release();
+    assertThat(otherLock.isLocked(), is(false));
+    assertThat(otherLock.tryLock(), is(true));
+    assertThat(provider.getLockManager().getContentionCount(), equalTo(1L));
+  }
+
+  @Test
+  public void metricsAreDisabledByDefault() throws Exception {
+    assertThat(provider.connect().getClient().getMetrics(), is(nullValue()));
+    assertThat(provider.getMetrics(), is(nullValue()));
+  }
+
+  @Test
+  public void connectionAcquiresAreMeasuredWhenMetricsAreEnabled() throws Exception {
+    provider.setMetricsEnabled(true);
+    SftpFileSystem fileSystem = provider.connect();
+
+    assertThat(fileSystem.getClient().getMetrics(), is(sameInstance(provider.getMetrics())));
+    assertThat(provider.getMetrics().getConnectionAcquireCount(), equalTo(1L));
+  }
+
   private void assertPassword() {
     verify(session).setPassword(PASSWORD);
   }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.sftp.internal.source;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.mule.extension.sftp.api.SftpFileAttributes;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import com.jcraft.jsch.SftpATTRS;
+
+import java.nio.file.Paths;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+@SmallTest
+public class SftpWatermarkTestCase extends AbstractMuleTestCase {
+
+  private static final int MODIFIED = 1500000000;
+
+  @Test
+  public void initialWatermarkAcceptsEveryFile() {
+    assertThat(SftpWatermark.INITIAL.accepts(file("a.txt", MODIFIED)), is(true));
+  }
+
+  @Test
+  public void olderFilesAreRejected() {
+    SftpWatermark watermark = SftpWatermark.INITIAL.advance(file("b.txt", MODIFIED));
+
+    assertThat(watermark.accepts(file("a.txt", MODIFIED - 1)), is(false));
+    assertThat(watermark.accepts(file("b.txt", MODIFIED)), is(false));
+    assertThat(watermark.accepts(file("b.txt", MODIFIED + 1)), is(true));
+  }
+
+  @Test
+  public void filesModifiedWithinTheSameSecondAreToldApartByName() {
+    SftpWatermark watermark = SftpWatermark.INITIAL.advance(file("b.txt", MODIFIED));
+
+    assertThat(watermark.accepts(file("a.txt", MODIFIED)), is(true));
+
+    watermark = watermark.advance(file("a.txt", MODIFIED));
+    assertThat(watermark.accepts(file("a.txt", MODIFIED)), is(false));
+    assertThat(watermark.getNames(), containsInAnyOrder("a.txt", "b.txt"));
+  }
+
+  @Test
+  public void newerFileResetsNames() {
+    SftpWatermark watermark = SftpWatermark.INITIAL.advance(file("a.txt", MODIFIED)).advance(file("b.txt", MODIFIED + 1));
+
+    assertThat(watermark.getNames(), containsInAnyOrder("b.txt"));
+    assertThat(watermark.getModifiedTime(), is((long) MODIFIED + 1));
+  }
+
+  @Test
+  public void filesModifiedWhenClockIsSetBackAreAccepted() {
+    TimeZone defaultTimeZone = TimeZone.getDefault();
+    TimeZone.setDefault(TimeZone.getTimeZone("Europe/Madrid"));
+    try {
+      // 02:30 CEST and 02:10 CET on 2017-10-29, the latter being later although its local time is earlier
+      SftpWatermark watermark = SftpWatermark.INITIAL.advance(file("a.txt", 1509237000));
+      assertThat(watermark.accepts(file("b.txt", 1509239400)), is(true));
+    } finally {
+      TimeZone.setDefault(defaultTimeZone);
+    }
+  }
+
+  @Test
+  public void processedFileDoesNotMoveWatermark() {
+    SftpWatermark watermark = SftpWatermark.INITIAL.advance(file("b.txt", MODIFIED));
+    assertThat(watermark.advance(file("a.txt", MODIFIED - 1)), is(sameInstance(watermark)));
+    assertThat(watermark.advance(file("b.txt", MODIFIED)), is(sameInstance(watermark)));
+  }
+
+  @Test
+  public void advancedWatermarkIsNewer() {
+    SftpWatermark watermark = SftpWatermark.INITIAL.advance(file("b.txt", MODIFIED));
+    SftpWatermark sameSecond = watermark.advance(file("a.txt", MODIFIED));
+    SftpWatermark nextSecond = sameSecond.advance(file("c.txt", MODIFIED + 1));
+
+    assertThat(watermark.isNewerThan(SftpWatermark.INITIAL), is(true));
+    assertThat(sameSecond.isNewerThan(watermark), is(true));
+    assertThat(nextSecond.isNewerThan(sameSecond), is(true));
+    assertThat(watermark.isNewerThan(nextSecond), is(false));
+    assertThat(watermark.isNewerThan(watermark), is(false));
+  }
+
+  private SftpFileAttributes file(String name, int modified) {
+    SftpATTRS attrs = mock(SftpATTRS.class);
+    when(attrs.getMTime()).thenReturn(modified);
+    return new SftpFileAttributes(Paths.get("/polled", name), attrs);
+  }
+}